@@ -0,0 +1,30 @@
+-- Migration script for sequence-based id allocation
+-- Run this in your Supabase SQL Editor before deploying the version that uses pooled sequences
+
+-- Entities now take ids from these sequences in blocks of 50 (Hibernate pooled optimizer), which
+-- lets Hibernate batch INSERTs; IDENTITY columns force one round trip per row.
+-- Each nextval returns the top of a block, so setval(max id, true) makes the next block start at
+-- max id + 1: existing ids are kept and never reused.
+CREATE SEQUENCE IF NOT EXISTS posts_seq INCREMENT BY 50;
+SELECT setval('posts_seq', GREATEST((SELECT last_value FROM posts_seq), COALESCE((SELECT MAX(id) FROM posts), 0)), true);
+
+CREATE SEQUENCE IF NOT EXISTS tags_seq INCREMENT BY 50;
+SELECT setval('tags_seq', GREATEST((SELECT last_value FROM tags_seq), COALESCE((SELECT MAX(id) FROM tags), 0)), true);
+
+CREATE SEQUENCE IF NOT EXISTS categories_seq INCREMENT BY 50;
+SELECT setval('categories_seq', GREATEST((SELECT last_value FROM categories_seq), COALESCE((SELECT MAX(id) FROM categories), 0)), true);
+
+CREATE SEQUENCE IF NOT EXISTS images_seq INCREMENT BY 50;
+SELECT setval('images_seq', GREATEST((SELECT last_value FROM images_seq), COALESCE((SELECT MAX(id) FROM images), 0)), true);
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+SELECT setval('users_seq', GREATEST((SELECT last_value FROM users_seq), COALESCE((SELECT MAX(id) FROM users), 0)), true);
+
+-- The old identity defaults stay on the id columns but are no longer used.
+
+-- Verify: each sequence's last_value must be >= the table's max id
+SELECT 'posts' AS table_name, (SELECT last_value FROM posts_seq) AS last_value, (SELECT MAX(id) FROM posts) AS max_id
+UNION ALL SELECT 'tags', (SELECT last_value FROM tags_seq), (SELECT MAX(id) FROM tags)
+UNION ALL SELECT 'categories', (SELECT last_value FROM categories_seq), (SELECT MAX(id) FROM categories)
+UNION ALL SELECT 'images', (SELECT last_value FROM images_seq), (SELECT MAX(id) FROM images)
+UNION ALL SELECT 'users', (SELECT last_value FROM users_seq), (SELECT MAX(id) FROM users);
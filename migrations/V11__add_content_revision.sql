@@ -0,0 +1,16 @@
+-- Migration script for the shared content revision (listing ETag / Last-Modified)
+-- Run this in your Supabase SQL Editor to create the content_revision table
+
+-- Single row bumped in the same transaction as every post change, so all instances agree on the version
+CREATE TABLE IF NOT EXISTS content_revision (
+    id BIGINT PRIMARY KEY,
+    revision BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+INSERT INTO content_revision (id, revision, updated_at)
+VALUES (1, 0, CURRENT_TIMESTAMP)
+ON CONFLICT (id) DO NOTHING;
+
+-- Verify the row exists
+SELECT id, revision, updated_at FROM content_revision;
@@ -0,0 +1,8 @@
+-- Migration script for the search index resync
+-- Run this in your Supabase SQL Editor to add the updated_at index
+
+-- The in-memory search index re-reads posts changed since its last sync; see BlogPostRepository.findWithCategoryAndTagsUpdatedAfter
+CREATE INDEX IF NOT EXISTS idx_posts_updated_at ON posts(updated_at);
+
+-- Verify the index was created
+SELECT indexname FROM pg_indexes WHERE tablename = 'posts' AND indexname = 'idx_posts_updated_at';
@@ -0,0 +1,17 @@
+-- Migration script for sharded visitor counters
+-- Run this in your Supabase SQL Editor to add the site_stats_shards table
+
+-- Visitor counter shards; instances add buffered visits to a random shard
+-- and a periodic compaction folds them into site_stats
+CREATE TABLE IF NOT EXISTS site_stats_shards (
+    id INTEGER PRIMARY KEY,
+    visitors BIGINT NOT NULL DEFAULT 0
+);
+
+-- Initialize the default 16 shards (matches app.visitors.shards)
+INSERT INTO site_stats_shards (id, visitors)
+SELECT g, 0 FROM generate_series(0, 15) AS g
+ON CONFLICT (id) DO NOTHING;
+
+-- Verify the table was created
+SELECT * FROM site_stats_shards;
@@ -0,0 +1,17 @@
+-- Migration script for PostgreSQL full-text search on posts
+-- Run this in your Supabase SQL Editor, then set SEARCH_MODE=FULL_TEXT
+
+-- Weighted tsvector over title/excerpt/content; maintained by Postgres on every write
+ALTER TABLE IF EXISTS posts
+    ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(excerpt, '')), 'B') ||
+        setweight(to_tsvector('english', coalesce(content, '')), 'C')
+    ) STORED;
+
+-- GIN index used by the @@ match in BlogPostRepository.searchPublishedIdsFullText
+CREATE INDEX IF NOT EXISTS idx_posts_search_vector ON posts USING GIN (search_vector);
+
+-- Verify the index was created
+SELECT indexname FROM pg_indexes WHERE tablename = 'posts' AND indexname = 'idx_posts_search_vector';
@@ -0,0 +1,8 @@
+-- Migration script for keyset (cursor) pagination of post feeds
+-- Run this in your Supabase SQL Editor to add the created_at/id index
+
+-- Feeds seek on (created_at, id) newest first; see BlogPostRepository.find*After
+CREATE INDEX IF NOT EXISTS idx_posts_created_at_id ON posts(created_at DESC, id DESC);
+
+-- Verify the index was created
+SELECT indexname FROM pg_indexes WHERE tablename = 'posts' AND indexname = 'idx_posts_created_at_id';
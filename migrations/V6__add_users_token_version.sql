@@ -0,0 +1,11 @@
+-- Migration script for JWT token versions (revocation in stateless principal mode)
+-- Run this in your Supabase SQL Editor to add the users.token_version column
+
+-- Issued tokens carry this value as the "ver" claim; bumping it revokes all older tokens
+ALTER TABLE IF EXISTS users
+    ADD COLUMN IF NOT EXISTS token_version INTEGER NOT NULL DEFAULT 0;
+
+-- Verify the column was added
+SELECT column_name, data_type, column_default
+FROM information_schema.columns
+WHERE table_name = 'users' AND column_name = 'token_version';
@@ -0,0 +1,15 @@
+-- Migration script for asynchronous image uploads
+-- Run this in your Supabase SQL Editor to add the images.status and images.failure_reason columns
+
+-- Existing images were uploaded synchronously, so they are READY
+ALTER TABLE IF EXISTS images
+    ADD COLUMN IF NOT EXISTS status VARCHAR(20) NOT NULL DEFAULT 'READY';
+
+-- Provider error for uploads that ended FAILED
+ALTER TABLE IF EXISTS images
+    ADD COLUMN IF NOT EXISTS failure_reason VARCHAR(500);
+
+-- Verify the columns were added
+SELECT column_name, data_type, column_default
+FROM information_schema.columns
+WHERE table_name = 'images' AND column_name IN ('status', 'failure_reason');
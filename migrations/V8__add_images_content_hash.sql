@@ -0,0 +1,18 @@
+-- Migration script for image upload deduplication
+-- Run this in your Supabase SQL Editor to add the images.content_hash column
+
+-- SHA-256 (hex) of the uploaded bytes; NULL for images uploaded before this change
+ALTER TABLE IF EXISTS images
+    ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
+-- Unique so concurrent uploads of the same file cannot both be recorded
+CREATE UNIQUE INDEX IF NOT EXISTS idx_images_content_hash ON images(content_hash);
+
+-- Verify the column and index were added
+SELECT column_name, data_type
+FROM information_schema.columns
+WHERE table_name = 'images' AND column_name = 'content_hash';
+
+SELECT indexname, indexdef
+FROM pg_indexes
+WHERE tablename = 'images' AND indexname = 'idx_images_content_hash';
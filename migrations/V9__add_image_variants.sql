@@ -0,0 +1,32 @@
+-- Migration script for resized image variants
+-- Run this in your Supabase SQL Editor to add the image_variants table and the posts cover variant columns
+
+-- One row per stored variant of an image (THUMBNAIL, CARD, FULL)
+CREATE TABLE IF NOT EXISTS image_variants (
+    image_id BIGINT NOT NULL REFERENCES images(id) ON DELETE CASCADE,
+    size VARCHAR(20) NOT NULL,
+    width INTEGER NOT NULL,
+    height INTEGER NOT NULL,
+    bytes BIGINT,
+    key VARCHAR(255),
+    file_id VARCHAR(255),
+    url VARCHAR(255)
+);
+
+CREATE INDEX IF NOT EXISTS idx_image_variants_image_id ON image_variants(image_id);
+
+-- Cover variant URLs copied onto posts; NULL until a post's cover is set again
+ALTER TABLE IF EXISTS posts
+    ADD COLUMN IF NOT EXISTS cover_thumbnail_url VARCHAR(255);
+
+ALTER TABLE IF EXISTS posts
+    ADD COLUMN IF NOT EXISTS cover_card_url VARCHAR(255);
+
+ALTER TABLE IF EXISTS posts
+    ADD COLUMN IF NOT EXISTS cover_full_url VARCHAR(255);
+
+-- Verify the table and columns were added
+SELECT table_name, column_name, data_type
+FROM information_schema.columns
+WHERE (table_name = 'image_variants')
+   OR (table_name = 'posts' AND column_name LIKE 'cover_%_url');
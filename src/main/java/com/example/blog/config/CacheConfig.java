@@ -0,0 +1,45 @@
+package com.example.blog.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * In-memory caches for hot read paths.
+ * Caches are bounded by size and TTL and record statistics, which Spring Boot
+ * publishes through actuator as the cache.gets / cache.puts / cache.evictions metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String POSTS_BY_SLUG = "postsBySlug";
+    public static final String POSTS_BY_ID = "postsById";
+
+    @Value("${app.cache.posts.maximum-size:500}")
+    private long postsMaximumSize;
+
+    @Value("${app.cache.posts.ttl:10m}")
+    private Duration postsTtl;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(POSTS_BY_SLUG, POSTS_BY_ID);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(postsMaximumSize)
+                .expireAfterWrite(postsTtl)
+                .recordStats());
+        // Missing posts surface as ResourceNotFoundException, so there is never a null to cache
+        cacheManager.setAllowNullValues(false);
+        // Defer write-side evictions until the surrounding transaction commits,
+        // so a concurrent read cannot re-cache the pre-update state
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
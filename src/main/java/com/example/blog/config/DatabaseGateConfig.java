@@ -0,0 +1,37 @@
+package com.example.blog.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Wraps the application DataSource in an {@link AdmissionControlledDataSource} so that bursts
+ * are shed with 503 instead of piling up on the small connection pool.
+ * Enabled with {@code app.db.gate.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.db.gate.enabled", havingValue = "true")
+public class DatabaseGateConfig {
+
+    @Bean
+    static BeanPostProcessor databaseGatePostProcessor(
+            @Value("${app.db.gate.max-concurrent:25}") int maxConcurrent,
+            @Value("${app.db.gate.acquire-timeout:2s}") Duration acquireTimeout,
+            @Value("${app.db.gate.retry-after:1s}") Duration retryAfter
+    ) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof AdmissionControlledDataSource)) {
+                    return new AdmissionControlledDataSource(dataSource, maxConcurrent, acquireTimeout, retryAfter);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.blog.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs (e.g. flushing buffered visitor counts).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -4,7 +4,9 @@ import com.example.blog.dto.AuthResponse;
 import com.example.blog.dto.RegisterRequest;
 import com.example.blog.entity.User;
 import com.example.blog.repository.UserRepository;
+import com.example.blog.security.CustomUserDetailsService;
 import com.example.blog.security.JwtService;
+import com.example.blog.security.TokenVersionRegistry;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -28,6 +30,8 @@ public class AdminSetupController {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    private final CustomUserDetailsService userDetailsService;
+    private final TokenVersionRegistry tokenVersionRegistry;
 
     @Value("${admin.setup.key:}")
     private String adminSetupKey;
@@ -75,9 +79,11 @@ public class AdminSetupController {
                 .build();
 
         User savedAdmin = userRepository.save(admin);
+        userDetailsService.evictAll();
         log.info("Admin user created successfully: username={}, email={}", savedAdmin.getUsername(), savedAdmin.getEmail());
 
-        String token = jwtService.generateToken(savedAdmin.getUsername(), savedAdmin.getRole().name());
+        tokenVersionRegistry.update(savedAdmin.getUsername(), savedAdmin.getTokenVersion());
+        String token = jwtService.generateToken(savedAdmin.getUsername(), savedAdmin.getRole().name(), savedAdmin.getTokenVersion());
 
         return ResponseEntity.status(HttpStatus.CREATED).body(
                 AuthResponse.builder()
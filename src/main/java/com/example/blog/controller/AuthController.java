@@ -45,5 +45,17 @@ public class AuthController {
         }
         return ResponseEntity.ok(authService.getCurrentUser(userDetails.getUsername()));
     }
+
+    /**
+     * POST /api/auth/logout-all - Revoke every token issued to the current user
+     */
+    @PostMapping("/logout-all")
+    public ResponseEntity<Void> logoutAll(@AuthenticationPrincipal UserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(401).build();
+        }
+        authService.revokeTokens(userDetails.getUsername());
+        return ResponseEntity.noContent().build();
+    }
 }
 
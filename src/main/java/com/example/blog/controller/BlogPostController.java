@@ -3,17 +3,23 @@ package com.example.blog.controller;
 
 import com.example.blog.dto.*;
 import com.example.blog.service.BlogPostService;
+import com.example.blog.service.PostRenderCache;
+import com.example.blog.service.PostRenderCache.RenderedPost;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/posts")
@@ -21,32 +27,62 @@ import java.util.List;
 public class BlogPostController {
 
     private final BlogPostService blogPostService;
+    private final PostRenderCache postRenderCache;
+    private final HttpCachePolicy httpCachePolicy;
 
     /**
      * GET /api/posts - List published posts with pagination and optional filters.
+     * Passing {@code cursor} (empty for the first page) switches to keyset pagination:
+     * the response is a {@link CursorPageResponse} with {@code nextCursor} and no total count.
      *
      * @param page page number (0-based)
      * @param size page size
      * @param tag optional tag slug filter
      * @param category optional category slug filter
      * @param q optional search query
+     * @param cursor optional keyset cursor from a previous response's {@code nextCursor}
      */
     @GetMapping
-    public ResponseEntity<Page<PostSummaryResponse>> listPosts(
+    public ResponseEntity<?> listPosts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String tag,
             @RequestParam(required = false) String category,
-            @RequestParam(required = false) String q
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String cursor,
+            WebRequest request
     ) {
-        Pageable pageable = PageRequest.of(page, Math.min(size, 50)); // Cap at 50
+        if (httpCachePolicy.isContentNotModified(request)) {
+            return httpCachePolicy.notModified(httpCachePolicy.listing());
+        }
 
-        Page<PostSummaryResponse> result;
+        int pageSize = Math.min(size, 50); // Cap at 50
 
         if (q != null && !q.isBlank()) {
-            // Search takes priority
-            result = blogPostService.search(q.trim(), pageable);
-        } else if (tag != null && category != null) {
+            // Search takes priority and is always offset-paginated (results are ranked, not time-ordered)
+            return listing(blogPostService.search(q.trim(), PageRequest.of(page, pageSize)));
+        }
+
+        if (cursor != null) {
+            PostCursor position = PostCursor.decode(cursor);
+            CursorPageResponse<PostSummaryResponse> result;
+            if (tag != null && category != null) {
+                result = blogPostService.findByTagAndCategory(tag, category, position, pageSize);
+            } else if (tag != null) {
+                result = blogPostService.findByTag(tag, position, pageSize);
+            } else if (category != null) {
+                result = blogPostService.findByCategory(category, position, pageSize);
+            } else {
+                result = blogPostService.findAllPublished(position, pageSize);
+            }
+            return listing(result);
+        }
+
+        Pageable pageable = PageRequest.of(page, pageSize);
+
+        Page<PostSummaryResponse> result;
+
+        if (tag != null && category != null) {
             result = blogPostService.findByTagAndCategory(tag, category, pageable);
         } else if (tag != null) {
             result = blogPostService.findByTag(tag, pageable);
@@ -56,7 +92,7 @@ public class BlogPostController {
             result = blogPostService.findAllPublished(pageable);
         }
 
-        return ResponseEntity.ok(result);
+        return listing(result);
     }
 
     /**
@@ -64,25 +100,44 @@ public class BlogPostController {
      */
     @GetMapping("/recent")
     public ResponseEntity<List<PostSummaryResponse>> getRecentPosts(
-            @RequestParam(defaultValue = "5") int limit
+            @RequestParam(defaultValue = "5") int limit,
+            WebRequest request
     ) {
-        return ResponseEntity.ok(blogPostService.findRecentlyUpdated(Math.min(limit, 20)));
+        if (httpCachePolicy.isContentNotModified(request)) {
+            return httpCachePolicy.notModified(httpCachePolicy.listing());
+        }
+        return listing(blogPostService.findRecentlyUpdated(Math.min(limit, 20)));
+    }
+
+    /**
+     * GET /api/posts/suggest - Search-as-you-type suggestions for titles, tags and categories.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionResponse>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "8") int limit
+    ) {
+        return ResponseEntity.ok(blogPostService.suggest(prefix, Math.min(limit, 20)));
     }
 
     /**
      * GET /api/posts/{id} - Get a single post by ID.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<PostResponse> getPostById(@PathVariable Long id) {
-        return ResponseEntity.ok(blogPostService.findById(id));
+    public ResponseEntity<PostResponse> getPostById(@PathVariable Long id, WebRequest request) {
+        return post(blogPostService.findById(id), request);
     }
 
     /**
      * GET /api/posts/slug/{slug} - Get a single post by slug.
      */
     @GetMapping("/slug/{slug}")
-    public ResponseEntity<PostResponse> getPostBySlug(@PathVariable String slug) {
-        return ResponseEntity.ok(blogPostService.findBySlug(slug));
+    public ResponseEntity<?> getPostBySlug(@PathVariable String slug, WebRequest request) {
+        Optional<RenderedPost> rendered = postRenderCache.get(slug);
+        if (rendered.isEmpty()) {
+            return post(blogPostService.findBySlug(slug), request);
+        }
+        return rendered(rendered.get(), request);
     }
 
     /**
@@ -123,14 +178,23 @@ public class BlogPostController {
 
     /**
      * GET /api/posts/archived - List archived posts with pagination.
+     * Accepts {@code cursor} for keyset pagination, as {@link #listPosts} does.
      */
     @GetMapping("/archived")
-    public ResponseEntity<Page<PostSummaryResponse>> listArchivedPosts(
+    public ResponseEntity<?> listArchivedPosts(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            WebRequest request
     ) {
+        if (httpCachePolicy.isContentNotModified(request)) {
+            return httpCachePolicy.notModified(httpCachePolicy.listing());
+        }
+        if (cursor != null) {
+            return listing(blogPostService.findAllArchived(PostCursor.decode(cursor), Math.min(size, 50)));
+        }
         Pageable pageable = PageRequest.of(page, Math.min(size, 50));
-        return ResponseEntity.ok(blogPostService.findAllArchived(pageable));
+        return listing(blogPostService.findAllArchived(pageable));
     }
 
     /**
@@ -153,15 +217,61 @@ public class BlogPostController {
      * GET /api/posts/categories/all - Get all categories with post counts.
      */
     @GetMapping("/categories/all")
-    public ResponseEntity<List<CategoryResponse>> getAllCategories() {
-        return ResponseEntity.ok(blogPostService.getAllCategories());
+    public ResponseEntity<List<CategoryResponse>> getAllCategories(WebRequest request) {
+        if (httpCachePolicy.isContentNotModified(request)) {
+            return httpCachePolicy.notModified(httpCachePolicy.taxonomy());
+        }
+        return ResponseEntity.ok().cacheControl(httpCachePolicy.taxonomy()).body(blogPostService.getAllCategories());
     }
 
     /**
      * GET /api/posts/tags/all - Get all tags with post counts.
      */
     @GetMapping("/tags/all")
-    public ResponseEntity<List<TagResponse>> getAllTags() {
-        return ResponseEntity.ok(blogPostService.getAllTags());
+    public ResponseEntity<List<TagResponse>> getAllTags(WebRequest request) {
+        if (httpCachePolicy.isContentNotModified(request)) {
+            return httpCachePolicy.notModified(httpCachePolicy.taxonomy());
+        }
+        return ResponseEntity.ok().cacheControl(httpCachePolicy.taxonomy()).body(blogPostService.getAllTags());
+    }
+
+    // Published posts are written straight from pre-rendered bytes, gzipped when the client accepts it
+    private ResponseEntity<byte[]> rendered(RenderedPost post, WebRequest request) {
+        if (httpCachePolicy.isNotModified(request, post.id(), post.updatedAt())) {
+            return httpCachePolicy.notModified(httpCachePolicy.post());
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(httpCachePolicy.post())
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(post.gzip());
+        }
+        return response.body(post.json());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private <T> ResponseEntity<T> listing(T body) {
+        return ResponseEntity.ok().cacheControl(httpCachePolicy.listing()).body(body);
+    }
+
+    // Post bodies come from the post cache, so a revalidation usually costs no query and no serialisation
+    private ResponseEntity<PostResponse> post(PostResponse post, WebRequest request) {
+        if (httpCachePolicy.isNotModified(request, post)) {
+            return httpCachePolicy.notModified(httpCachePolicy.post());
+        }
+        return ResponseEntity.ok().cacheControl(httpCachePolicy.post()).body(post);
     }
 }
@@ -6,6 +6,7 @@ import com.example.blog.service.CategoryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -15,13 +16,17 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final HttpCachePolicy httpCachePolicy;
 
     /**
      * GET /api/categories - Get all categories with published posts.
      */
     @GetMapping
-    public ResponseEntity<List<CategoryResponse>> getAllCategories() {
-        return ResponseEntity.ok(categoryService.findAllWithPublishedPosts());
+    public ResponseEntity<List<CategoryResponse>> getAllCategories(WebRequest request) {
+        if (httpCachePolicy.isContentNotModified(request)) {
+            return httpCachePolicy.notModified(httpCachePolicy.taxonomy());
+        }
+        return ResponseEntity.ok().cacheControl(httpCachePolicy.taxonomy()).body(categoryService.findAllWithPublishedPosts());
     }
 }
 
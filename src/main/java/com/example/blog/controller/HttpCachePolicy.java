@@ -0,0 +1,80 @@
+package com.example.blog.controller;
+
+import com.example.blog.dto.PostResponse;
+import com.example.blog.service.ContentVersion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Conditional GET support for the public read endpoints: Cache-Control lifetimes (configurable
+ * per endpoint group), the ETag of a post, and validation of listings against {@link ContentVersion}.
+ * Clients revalidate with If-None-Match / If-Modified-Since once max-age has passed.
+ */
+@Component
+@RequiredArgsConstructor
+public class HttpCachePolicy {
+
+    private final ContentVersion contentVersion;
+
+    @Value("${app.http.cache.post-max-age:60s}")
+    private Duration postMaxAge;
+
+    @Value("${app.http.cache.listing-max-age:30s}")
+    private Duration listingMaxAge;
+
+    @Value("${app.http.cache.taxonomy-max-age:5m}")
+    private Duration taxonomyMaxAge;
+
+    public CacheControl post() {
+        return CacheControl.maxAge(postMaxAge).cachePublic();
+    }
+
+    public CacheControl listing() {
+        return CacheControl.maxAge(listingMaxAge).cachePublic();
+    }
+
+    public CacheControl taxonomy() {
+        return CacheControl.maxAge(taxonomyMaxAge).cachePublic();
+    }
+
+    /**
+     * Whether the client's copy of a listing is still current. Checked before anything is loaded;
+     * also sets the ETag and Last-Modified response headers.
+     */
+    public boolean isContentNotModified(WebRequest request) {
+        return request.checkNotModified(contentVersion.etag(), contentVersion.lastModified().toEpochMilli());
+    }
+
+    /**
+     * Whether the client's copy of the post is still current; also sets the ETag and Last-Modified headers.
+     */
+    public boolean isNotModified(WebRequest request, PostResponse post) {
+        return isNotModified(request, post.getId(), post.getUpdatedAt());
+    }
+
+    public boolean isNotModified(WebRequest request, Long postId, Instant updatedAt) {
+        return request.checkNotModified(etag(postId, updatedAt), updatedAt.toEpochMilli());
+    }
+
+    /**
+     * Strong ETag of a post: changes whenever the post is saved.
+     */
+    public String etag(Long postId, Instant updatedAt) {
+        return postId + "-" + updatedAt.getEpochSecond() + "." + updatedAt.getNano();
+    }
+
+    /**
+     * A 304 answer; the ETag / Last-Modified headers are already set by {@code WebRequest.checkNotModified}.
+     */
+    public <T> ResponseEntity<T> notModified(CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+    }
+}
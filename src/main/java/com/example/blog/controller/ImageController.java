@@ -1,5 +1,6 @@
 package com.example.blog.controller;
 
+import com.example.blog.dto.BatchUploadResponse;
 import com.example.blog.dto.ImageResponse;
 import com.example.blog.dto.ImageType;
 import com.example.blog.service.ImageService;
@@ -8,6 +9,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.net.URI;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/images")
 public class ImageController {
@@ -54,6 +58,40 @@ public class ImageController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Upload several images in one request (repeat the "files" part).
+     * Files are uploaded in parallel; the response has one result per file in request order,
+     * including failures, so a partly failed batch still returns 200.
+     */
+    @PostMapping(value = "/batch", consumes = "multipart/form-data")
+    public ResponseEntity<BatchUploadResponse> uploadBatch(
+            @RequestPart("files") List<MultipartFile> files,
+            @RequestParam(value = "type", defaultValue = "CONTENT") ImageType type) {
+        BatchUploadResponse response = imageService.uploadBatch(files, type);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Accept an image for asynchronous upload.
+     * Returns 202 with the PENDING image straight away; poll the Location (/api/images/jobs/{id})
+     * until status is READY (url set) or FAILED (failureReason set).
+     */
+    @PostMapping(value = "/jobs", consumes = "multipart/form-data")
+    public ResponseEntity<ImageResponse> submitUpload(
+            @RequestPart("file") MultipartFile file,
+            @RequestParam(value = "type", defaultValue = "CONTENT") ImageType type) {
+        ImageResponse response = imageService.submitUpload(file, type);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/images/jobs/" + response.getId()))
+                .body(response);
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ImageResponse> getUploadJob(@PathVariable Long id) {
+        ImageResponse response = imageService.getById(id);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ImageResponse> getById(@PathVariable Long id) {
         ImageResponse response = imageService.getById(id);
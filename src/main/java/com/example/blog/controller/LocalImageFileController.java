@@ -0,0 +1,120 @@
+package com.example.blog.controller;
+
+import com.example.blog.exception.ResourceNotFoundException;
+import com.example.blog.service.ImageFormat;
+import com.example.blog.service.LocalDiskStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Serves files stored by {@link LocalDiskStorageService}.
+ *
+ * Whole-file GETs are handed to Tomcat's sendfile (zero-copy from the page cache to the socket)
+ * when the connector supports it; Range requests and other containers get a {@link Resource}
+ * body, which Spring answers with 206 region responses.
+ *
+ * Files are served from the API origin, so only the raster types of {@link ImageFormat} are served
+ * inline; anything else (e.g. a file stored before uploads were sniffed) is sent as an attachment.
+ * Every response carries {@code nosniff} and a sandboxing CSP so a browser never runs it as a document.
+ */
+@RestController
+@RequestMapping("/api/images/files")
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "local")
+public class LocalImageFileController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String CONTENT_TYPE_OPTIONS = "X-Content-Type-Options";
+    private static final String CONTENT_SECURITY_POLICY = "Content-Security-Policy";
+
+    private final LocalDiskStorageService storageService;
+    private final HttpCachePolicy cachePolicy;
+
+    public LocalImageFileController(LocalDiskStorageService storageService, HttpCachePolicy cachePolicy) {
+        this.storageService = storageService;
+        this.cachePolicy = cachePolicy;
+    }
+
+    @GetMapping("/{*key}")
+    public ResponseEntity<Resource> serve(
+            @PathVariable String key,
+            @RequestParam(required = false) Long expires,
+            @RequestParam(required = false) String signature,
+            HttpServletRequest request,
+            WebRequest webRequest) throws IOException {
+        String objectKey = key.startsWith("/") ? key.substring(1) : key;
+
+        CacheControl cacheControl;
+        if (signature != null || !storageService.isPublicRead()) {
+            if (expires == null || signature == null || !storageService.isSignatureValid(objectKey, expires, signature)) {
+                throw new AccessDeniedException("Invalid or expired signature");
+            }
+            cacheControl = CacheControl.maxAge(Duration.between(Instant.now(), Instant.ofEpochSecond(expires)))
+                    .cachePrivate();
+        } else {
+            // keys are content hashes, so a file never changes
+            cacheControl = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+        }
+
+        Path file = storageService.resolve(objectKey);
+        if (!Files.isRegularFile(file)) {
+            throw new ResourceNotFoundException("Image not found: " + objectKey);
+        }
+
+        String etag = "\"" + file.getFileName() + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return cachePolicy.notModified(cacheControl);
+        }
+
+        long length = Files.size(file);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(CONTENT_TYPE_OPTIONS, "nosniff")
+                .header(CONTENT_SECURITY_POLICY, "sandbox");
+        Optional<ImageFormat> format = ImageFormat.fromFileName(file.getFileName().toString());
+        if (format.isPresent()) {
+            response.contentType(format.get().getMediaType());
+        } else {
+            response.contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                            .filename(file.getFileName().toString())
+                            .build().toString());
+        }
+
+        if (HttpMethod.GET.matches(request.getMethod())
+                && request.getHeader(HttpHeaders.RANGE) == null
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+            return response.contentLength(length).build();
+        }
+        return response.body(new FileSystemResource(file));
+    }
+}
@@ -6,6 +6,7 @@ import com.example.blog.service.TagService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -15,13 +16,17 @@ import java.util.List;
 public class TagController {
 
     private final TagService tagService;
+    private final HttpCachePolicy httpCachePolicy;
 
     /**
      * GET /api/tags - Get all tags with published posts.
      */
     @GetMapping
-    public ResponseEntity<List<TagResponse>> getAllTags() {
-        return ResponseEntity.ok(tagService.findAllWithPublishedPosts());
+    public ResponseEntity<List<TagResponse>> getAllTags(WebRequest request) {
+        if (httpCachePolicy.isContentNotModified(request)) {
+            return httpCachePolicy.notModified(httpCachePolicy.taxonomy());
+        }
+        return ResponseEntity.ok().cacheControl(httpCachePolicy.taxonomy()).body(tagService.findAllWithPublishedPosts());
     }
 
     /**
@@ -29,9 +34,13 @@ public class TagController {
      */
     @GetMapping("/trending")
     public ResponseEntity<List<TagResponse>> getTrendingTags(
-            @RequestParam(defaultValue = "10") int limit
+            @RequestParam(defaultValue = "10") int limit,
+            WebRequest request
     ) {
-        return ResponseEntity.ok(tagService.findTrending(Math.min(limit, 50)));
+        if (httpCachePolicy.isContentNotModified(request)) {
+            return httpCachePolicy.notModified(httpCachePolicy.taxonomy());
+        }
+        return ResponseEntity.ok().cacheControl(httpCachePolicy.taxonomy()).body(tagService.findTrending(Math.min(limit, 50)));
     }
 }
 
@@ -0,0 +1,28 @@
+package com.example.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome for one file of a batch upload, in the order the files were sent.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchUploadItemResponse {
+
+    private int index;
+    private String originalName;
+    private Status status;
+    private ImageResponse image;     // set unless FAILED
+    private String error;            // set when FAILED
+
+    public enum Status {
+        CREATED,    // uploaded and stored as a new image
+        EXISTING,   // same content was already stored; image is the existing one
+        FAILED
+    }
+}
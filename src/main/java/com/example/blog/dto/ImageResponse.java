@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.Instant;
+import java.util.List;
 
 @Data
 @Builder
@@ -18,6 +19,9 @@ public class ImageResponse {
     private String originalName;
     private String key;
     private Instant uploadedAt;
+    private String status;           // PENDING, READY or FAILED
+    private String failureReason;
+    private List<ImageVariantResponse> variants;
 
     private Long postId;
 
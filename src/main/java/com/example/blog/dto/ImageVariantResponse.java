@@ -0,0 +1,18 @@
+package com.example.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageVariantResponse {
+
+    private String size;             // THUMBNAIL, CARD or FULL
+    private String url;
+    private int width;
+    private int height;
+}
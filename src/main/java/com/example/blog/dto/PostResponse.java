@@ -24,6 +24,9 @@ public class PostResponse {
     private String author;
     private Integer readTime;
     private String coverImageUrl;
+    private String coverThumbnailUrl;
+    private String coverCardUrl;
+    private String coverFullUrl;
     private boolean published;
     private boolean archived;
 
@@ -22,6 +22,8 @@ public class PostSummaryResponse {
     private String excerpt;
     private String author;
     private String coverImageUrl;
+    private String coverThumbnailUrl;
+    private String coverCardUrl;
     private Integer readTime;
     private boolean archived;
 
@@ -0,0 +1,24 @@
+package com.example.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A search-as-you-type suggestion: a post title, tag name or category name.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionResponse {
+
+    private String text;
+    private Type type;
+    private String slug; // Post, tag or category slug to navigate to
+
+    public enum Type {
+        POST, TAG, CATEGORY
+    }
+}
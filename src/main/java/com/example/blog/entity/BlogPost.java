@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -22,7 +23,8 @@ import java.util.Set;
 public class BlogPost {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "posts_seq")
+    @SequenceGenerator(name = "posts_seq", sequenceName = "posts_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -43,6 +45,11 @@ public class BlogPost {
 
     private String coverImageUrl;
 
+    // Resized copies of the cover image, copied from its Image row when the cover is set
+    private String coverThumbnailUrl;
+    private String coverCardUrl;
+    private String coverFullUrl;
+
     @Builder.Default
     private int readTime = 0;
 
@@ -74,14 +81,22 @@ public class BlogPost {
     @PrePersist
     void onCreate() {
         createdAt = Instant.now();
-        updatedAt = Instant.now();
+        updatedAt = now();
         generateSlugIfMissing();
         calculateReadTime();
     }
 
+    /**
+     * The current time at the database's timestamp precision, so an entity's updatedAt equals the
+     * stored value (the database would round the JVM's nanoseconds).
+     */
+    public static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
     @PreUpdate
     void onUpdate() {
-        updatedAt = Instant.now();
+        updatedAt = now();
         calculateReadTime();
     }
 
@@ -0,0 +1,32 @@
+package com.example.blog.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Revision counter of the published content (posts, and through them tags and categories).
+ * A single row with a fixed ID, bumped in the same transaction as every post change, so all
+ * instances derive the same listing ETag / Last-Modified from it.
+ */
+@Entity
+@Table(name = "content_revision")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class ContentRevision {
+
+    public static final Long GLOBAL_ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long revision = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
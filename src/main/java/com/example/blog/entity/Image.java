@@ -3,15 +3,25 @@ package com.example.blog.entity;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 
 @Entity
-@Table(name = "images")
+@Table(name = "images", indexes = {
+    @Index(name = "idx_images_content_hash", columnList = "content_hash", unique = true)
+})
 @Data
 @NoArgsConstructor
 public class Image {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "images_seq")
+    @SequenceGenerator(name = "images_seq", sequenceName = "images_seq", allocationSize = 50)
     private Long id;
 
     private String key;           // ImageKit file path (e.g., /blog-images/uuid.jpg)
@@ -20,13 +30,47 @@ public class Image {
     private String contentType;
     private Long size;
     private String url;           // CDN URL from ImageKit
+
+    // SHA-256 of the file (hex); re-uploading identical content returns this image
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
     private Instant uploadedAt;
 
+    // PENDING while an async upload is queued or in flight; key/fileId/url are set once READY
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.READY;
+
+    @Column(length = 500)
+    private String failureReason;
+
+    // Downscaled copies (thumbnail/card/full), smallest first; empty when the original is already small
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "image_variants", joinColumns = @JoinColumn(name = "image_id"))
+    @Fetch(FetchMode.SUBSELECT)
+    private List<ImageVariant> variants = new ArrayList<>();
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "post_id")
     private com.example.blog.entity.BlogPost post;
 
     @PrePersist
     void onCreate() { uploadedAt = Instant.now(); }
+
+    /**
+     * URL of the smallest copy at least as large as {@code size}: that variant, a larger one,
+     * or the original when no variant that large exists.
+     */
+    public String variantUrl(ImageVariant.Size size) {
+        return variants.stream()
+                .filter(v -> v.getSize().compareTo(size) >= 0)
+                .min(Comparator.comparing(ImageVariant::getSize))
+                .map(ImageVariant::getUrl)
+                .orElse(url);
+    }
+
+    public enum Status {
+        PENDING, READY, FAILED
+    }
 }
 
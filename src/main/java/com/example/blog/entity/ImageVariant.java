@@ -0,0 +1,48 @@
+package com.example.blog.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A downscaled copy of an {@link Image}, stored next to the original.
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageVariant {
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Size size;
+
+    private int width;
+    private int height;
+    private Long bytes;
+
+    private String key;
+    private String fileId;
+    private String url;
+
+    /**
+     * Variant sizes by maximum width, smallest first. A variant is only produced when the
+     * original is wider than its maximum.
+     */
+    public enum Size {
+        THUMBNAIL(320),
+        CARD(768),
+        FULL(1600);
+
+        private final int maxWidth;
+
+        Size(int maxWidth) {
+            this.maxWidth = maxWidth;
+        }
+
+        public int getMaxWidth() {
+            return maxWidth;
+        }
+    }
+}
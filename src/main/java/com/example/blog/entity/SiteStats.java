@@ -9,6 +9,7 @@ import java.time.LocalDateTime;
 /**
  * Entity to store site-wide statistics like total visitor count.
  * Uses a single row with a fixed ID for global counters.
+ * Visitor increments land in {@link SiteStatsShard} rows first and are periodically folded in here.
  */
 @Entity
 @Table(name = "site_stats")
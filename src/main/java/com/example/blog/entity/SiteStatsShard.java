@@ -0,0 +1,26 @@
+package com.example.blog.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * One shard of the visitor counter.
+ * Instances add their buffered visits to a random shard instead of the single global
+ * {@link SiteStats} row, so concurrent flushes from several instances rarely touch the
+ * same row. A periodic compaction folds the shards back into the global row.
+ */
+@Entity
+@Table(name = "site_stats_shards")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class SiteStatsShard {
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long visitors = 0L;
+}
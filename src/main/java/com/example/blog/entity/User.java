@@ -19,7 +19,8 @@ import java.time.Instant;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -46,6 +47,11 @@ public class User {
     @Builder.Default
     private boolean enabled = true;
 
+    // Embedded in issued JWTs as "ver"; bumping it revokes every token issued before
+    @Builder.Default
+    @Column(nullable = false)
+    private int tokenVersion = 0;
+
     private Instant createdAt;
     private Instant updatedAt;
     private Instant lastLoginAt;
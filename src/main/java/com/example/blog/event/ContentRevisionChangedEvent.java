@@ -0,0 +1,11 @@
+package com.example.blog.event;
+
+/**
+ * Published when {@link com.example.blog.service.ContentVersion} reads a content revision it has
+ * not seen before, which includes changes committed by other instances. Local read models that are
+ * otherwise only updated from this instance's {@link PostChangedEvent}s drop their state on it.
+ *
+ * @param revision the newly seen revision
+ */
+public record ContentRevisionChangedEvent(long revision) {
+}
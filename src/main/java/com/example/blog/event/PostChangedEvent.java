@@ -0,0 +1,12 @@
+package com.example.blog.event;
+
+/**
+ * Published by the post service whenever a post is created, updated, archived, unarchived or deleted.
+ * Listeners that keep derived read models (caches, indexes) react after the transaction commits.
+ *
+ * @param postId id of the post that changed
+ * @param before state before the change, or null if the post was created
+ * @param after state after the change, or null if the post was deleted
+ */
+public record PostChangedEvent(Long postId, PostSnapshot before, PostSnapshot after) {
+}
@@ -0,0 +1,29 @@
+package com.example.blog.event;
+
+import com.example.blog.entity.BlogPost;
+import com.example.blog.entity.Tag;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The feed-relevant state of a post at one point in time, carried by {@link PostChangedEvent}
+ * so listeners can tell which feeds a post left or joined without reloading it.
+ *
+ * @param slug post slug
+ * @param published whether the post was published
+ * @param archived whether the post was archived
+ * @param categorySlug slug of the post's category, or null
+ * @param tagSlugs slugs of the post's tags
+ */
+public record PostSnapshot(String slug, boolean published, boolean archived, String categorySlug, Set<String> tagSlugs) {
+
+    public static PostSnapshot of(BlogPost post) {
+        return new PostSnapshot(
+                post.getSlug(),
+                post.isPublished(),
+                post.isArchived(),
+                post.getCategory() != null ? post.getCategory().getSlug() : null,
+                post.getTags().stream().map(Tag::getSlug).collect(Collectors.toUnmodifiableSet()));
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.blog.exception;
+
+/**
+ * Thrown when a request cannot get a database connection slot in time and is shed
+ * instead of queueing; answered with 503 and a Retry-After header.
+ */
+public class DatabaseBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public DatabaseBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
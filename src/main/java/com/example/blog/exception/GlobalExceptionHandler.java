@@ -1,5 +1,7 @@
 package com.example.blog.exception;
 
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -85,8 +87,30 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(err);
     }
 
+    @ExceptionHandler(DatabaseBusyException.class)
+    public ResponseEntity<ApiError> handleDatabaseBusy(DatabaseBusyException ex, HttpServletRequest req) {
+        log.warn("Shedding request {}: {}", req.getRequestURI(), ex.getMessage());
+        ApiError err = new ApiError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Service Unavailable", ex.getMessage(), req.getRequestURI());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(err);
+    }
+
+    @ExceptionHandler(UploadQueueFullException.class)
+    public ResponseEntity<ApiError> handleUploadQueueFull(UploadQueueFullException ex, HttpServletRequest req) {
+        log.warn("Refusing upload {}: {}", req.getRequestURI(), ex.getMessage());
+        ApiError err = new ApiError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Service Unavailable", ex.getMessage(), req.getRequestURI());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(err);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiError> handleAll(Exception ex, HttpServletRequest req) {
+        // The gate's exception usually arrives wrapped by the transaction manager or Hibernate
+        if (NestedExceptionUtils.getRootCause(ex) instanceof DatabaseBusyException busy) {
+            return handleDatabaseBusy(busy, req);
+        }
         log.error("Unhandled exception", ex);
         ApiError err = new ApiError(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Internal Server Error",
                 "An unexpected error occurred. Please try again later.", req.getRequestURI());
@@ -0,0 +1,19 @@
+package com.example.blog.exception;
+
+/**
+ * Thrown when the asynchronous upload spool is full and a new upload is refused
+ * instead of queueing without bound; answered with 503 and a Retry-After header.
+ */
+public class UploadQueueFullException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public UploadQueueFullException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -5,7 +5,9 @@ import com.example.blog.dto.*;
 import com.example.blog.entity.BlogPost;
 import com.example.blog.entity.Category;
 import com.example.blog.entity.Image;
+import com.example.blog.entity.ImageVariant;
 import com.example.blog.entity.Tag;
+import com.example.blog.repository.PostSummaryView;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
@@ -83,6 +85,9 @@ public final class BlogPostMapper {
                 .excerpt(post.getExcerpt())
                 .author(post.getAuthor())
                 .coverImageUrl(post.getCoverImageUrl())
+                .coverThumbnailUrl(post.getCoverThumbnailUrl())
+                .coverCardUrl(post.getCoverCardUrl())
+                .coverFullUrl(post.getCoverFullUrl())
                 .readTime(post.getReadTime())
                 .published(post.isPublished())
                 .archived(post.isArchived())
@@ -114,6 +119,8 @@ public final class BlogPostMapper {
                 .excerpt(excerpt)
                 .author(post.getAuthor())
                 .coverImageUrl(post.getCoverImageUrl())
+                .coverThumbnailUrl(post.getCoverThumbnailUrl())
+                .coverCardUrl(post.getCoverCardUrl())
                 .readTime(post.getReadTime())
                 .archived(post.isArchived())
                 .categoryName(post.getCategory() != null ? post.getCategory().getName() : null)
@@ -126,6 +133,36 @@ public final class BlogPostMapper {
                 .build();
     }
 
+    /**
+     * Convert a summary projection to summary DTO for listing.
+     * Tags are loaded separately in one batch per page; content is only supplied
+     * when the stored excerpt is blank and has to be generated.
+     */
+    public static PostSummaryResponse toSummary(PostSummaryView view, List<String> tags, String content) {
+        String excerpt = view.getExcerpt();
+        if (excerpt == null || excerpt.isBlank()) {
+            excerpt = generateExcerpt(content);
+        }
+
+        return PostSummaryResponse.builder()
+                .id(view.getId())
+                .title(view.getTitle())
+                .slug(view.getSlug())
+                .excerpt(excerpt)
+                .author(view.getAuthor())
+                .coverImageUrl(view.getCoverImageUrl())
+                .coverThumbnailUrl(view.getCoverThumbnailUrl())
+                .coverCardUrl(view.getCoverCardUrl())
+                .readTime(view.getReadTime())
+                .archived(Boolean.TRUE.equals(view.getArchived()))
+                .categoryName(view.getCategoryName())
+                .categorySlug(view.getCategorySlug())
+                .tags(tags)
+                .createdAt(view.getCreatedAt())
+                .updatedAt(view.getUpdatedAt())
+                .build();
+    }
+
     public static TagResponse toTagResponse(Tag tag) {
         return TagResponse.builder()
                 .id(tag.getId())
@@ -152,10 +189,27 @@ public final class BlogPostMapper {
                 .originalName(img.getOriginalName())
                 .url(img.getUrl())
                 .uploadedAt(img.getUploadedAt())
+                .status(img.getStatus().name())
+                .failureReason(img.getFailureReason())
+                .variants(toVariantResponses(img.getVariants()))
                 .postId(img.getPost() != null ? img.getPost().getId() : null)
                 .build();
     }
 
+    public static List<ImageVariantResponse> toVariantResponses(List<ImageVariant> variants) {
+        if (variants == null) {
+            return List.of();
+        }
+        return variants.stream()
+                .map(v -> ImageVariantResponse.builder()
+                        .size(v.getSize().name())
+                        .url(v.getUrl())
+                        .width(v.getWidth())
+                        .height(v.getHeight())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
     /**
      * Generate an excerpt from content by stripping HTML and truncating.
      */
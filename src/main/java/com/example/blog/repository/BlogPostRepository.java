@@ -4,11 +4,15 @@ package com.example.blog.repository;
 import com.example.blog.entity.BlogPost;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,104 +23,385 @@ public interface BlogPostRepository extends JpaRepository<BlogPost, Long> {
 
     boolean existsBySlug(String slug);
 
+    @EntityGraph(attributePaths = {"category", "tags"})
     Optional<BlogPost> findBySlug(String slug);
 
     /**
-     * Find all published posts with pagination, ordered by creation date desc.
+     * Id, published flag and last update of the post with the given slug; a single indexed row read.
      */
-    Page<BlogPost> findByPublishedTrueOrderByCreatedAtDesc(Pageable pageable);
+    @Query("SELECT p.id AS id, p.published AS published, p.updatedAt AS updatedAt FROM BlogPost p WHERE p.slug = :slug")
+    Optional<PostVersionView> findVersionBySlug(@Param("slug") String slug);
 
     /**
-     * Find all archived posts with pagination, ordered by creation date desc.
+     * Find a post by id with its category and tags fetched in the same statement.
      */
-    Page<BlogPost> findByArchivedTrueOrderByCreatedAtDesc(Pageable pageable);
+    @EntityGraph(attributePaths = {"category", "tags"})
+    @Query("SELECT p FROM BlogPost p WHERE p.id = :id")
+    Optional<BlogPost> findWithCategoryAndTagsById(@Param("id") Long id);
 
     /**
-     * Find all published and non-archived posts with pagination.
+     * Find all posts (admin view) with categories and tags fetched in the same statement.
      */
-    Page<BlogPost> findByPublishedTrueAndArchivedFalseOrderByCreatedAtDesc(Pageable pageable);
+    @EntityGraph(attributePaths = {"category", "tags"})
+    @Query("SELECT DISTINCT p FROM BlogPost p ORDER BY p.id")
+    List<BlogPost> findAllWithCategoryAndTags();
 
     /**
-     * Find published posts by tag slug.
+     * Posts updated after the given instant, with categories and tags fetched in the same statement.
+     */
+    @EntityGraph(attributePaths = {"category", "tags"})
+    @Query("SELECT DISTINCT p FROM BlogPost p WHERE p.updatedAt > :since ORDER BY p.id")
+    List<BlogPost> findWithCategoryAndTagsUpdatedAfter(@Param("since") Instant since);
+
+    // Offset listings return a Slice: no COUNT per request. Totals come from the counts below,
+    // which the service caches per feed (see FeedCountCache).
+
+    /**
+     * Find all published post summaries with pagination, ordered by creation date desc.
      */
     @Query("""
-        SELECT DISTINCT p FROM BlogPost p
-        JOIN p.tags t
-        WHERE p.published = true AND t.slug = :tagSlug
+        SELECT p.id AS id, p.title AS title, p.slug AS slug, p.excerpt AS excerpt,
+               p.author AS author, p.coverImageUrl AS coverImageUrl, p.coverThumbnailUrl AS coverThumbnailUrl,
+               p.coverCardUrl AS coverCardUrl, p.readTime AS readTime,
+               p.archived AS archived, c.name AS categoryName, c.slug AS categorySlug,
+               p.createdAt AS createdAt, p.updatedAt AS updatedAt
+        FROM BlogPost p
+        LEFT JOIN p.category c
+        WHERE p.published = true
         ORDER BY p.createdAt DESC
         """)
-    Page<BlogPost> findPublishedByTagSlug(@Param("tagSlug") String tagSlug, Pageable pageable);
+    Slice<PostSummaryView> findPublishedSummaries(Pageable pageable);
 
     /**
-     * Find published posts by category slug.
+     * Find all archived post summaries with pagination, ordered by creation date desc.
      */
     @Query("""
-        SELECT p FROM BlogPost p
-        WHERE p.published = true AND p.category.slug = :categorySlug
+        SELECT p.id AS id, p.title AS title, p.slug AS slug, p.excerpt AS excerpt,
+               p.author AS author, p.coverImageUrl AS coverImageUrl, p.coverThumbnailUrl AS coverThumbnailUrl,
+               p.coverCardUrl AS coverCardUrl, p.readTime AS readTime,
+               p.archived AS archived, c.name AS categoryName, c.slug AS categorySlug,
+               p.createdAt AS createdAt, p.updatedAt AS updatedAt
+        FROM BlogPost p
+        LEFT JOIN p.category c
+        WHERE p.archived = true
         ORDER BY p.createdAt DESC
         """)
-    Page<BlogPost> findPublishedByCategorySlug(@Param("categorySlug") String categorySlug, Pageable pageable);
+    Slice<PostSummaryView> findArchivedSummaries(Pageable pageable);
 
     /**
-     * Find published posts by both tag and category.
+     * Find published post summaries by tag slug.
+     * Filters through EXISTS instead of a DISTINCT join so each post appears once.
      */
     @Query("""
-        SELECT DISTINCT p FROM BlogPost p
-        JOIN p.tags t
+        SELECT p.id AS id, p.title AS title, p.slug AS slug, p.excerpt AS excerpt,
+               p.author AS author, p.coverImageUrl AS coverImageUrl, p.coverThumbnailUrl AS coverThumbnailUrl,
+               p.coverCardUrl AS coverCardUrl, p.readTime AS readTime,
+               p.archived AS archived, c.name AS categoryName, c.slug AS categorySlug,
+               p.createdAt AS createdAt, p.updatedAt AS updatedAt
+        FROM BlogPost p
+        LEFT JOIN p.category c
         WHERE p.published = true
-        AND t.slug = :tagSlug
-        AND p.category.slug = :categorySlug
+        AND EXISTS (SELECT 1 FROM BlogPost tp JOIN tp.tags t WHERE tp.id = p.id AND t.slug = :tagSlug)
+        ORDER BY p.createdAt DESC
+        """)
+    Slice<PostSummaryView> findPublishedSummariesByTagSlug(@Param("tagSlug") String tagSlug, Pageable pageable);
+
+    /**
+     * Find published post summaries by category slug.
+     */
+    @Query("""
+        SELECT p.id AS id, p.title AS title, p.slug AS slug, p.excerpt AS excerpt,
+               p.author AS author, p.coverImageUrl AS coverImageUrl, p.coverThumbnailUrl AS coverThumbnailUrl,
+               p.coverCardUrl AS coverCardUrl, p.readTime AS readTime,
+               p.archived AS archived, c.name AS categoryName, c.slug AS categorySlug,
+               p.createdAt AS createdAt, p.updatedAt AS updatedAt
+        FROM BlogPost p
+        LEFT JOIN p.category c
+        WHERE p.published = true AND c.slug = :categorySlug
         ORDER BY p.createdAt DESC
         """)
-    Page<BlogPost> findPublishedByTagAndCategory(
+    Slice<PostSummaryView> findPublishedSummariesByCategorySlug(@Param("categorySlug") String categorySlug, Pageable pageable);
+
+    /**
+     * Find published post summaries by both tag and category.
+     */
+    @Query("""
+        SELECT p.id AS id, p.title AS title, p.slug AS slug, p.excerpt AS excerpt,
+               p.author AS author, p.coverImageUrl AS coverImageUrl, p.coverThumbnailUrl AS coverThumbnailUrl,
+               p.coverCardUrl AS coverCardUrl, p.readTime AS readTime,
+               p.archived AS archived, c.name AS categoryName, c.slug AS categorySlug,
+               p.createdAt AS createdAt, p.updatedAt AS updatedAt
+        FROM BlogPost p
+        LEFT JOIN p.category c
+        WHERE p.published = true
+        AND c.slug = :categorySlug
+        AND EXISTS (SELECT 1 FROM BlogPost tp JOIN tp.tags t WHERE tp.id = p.id AND t.slug = :tagSlug)
+        ORDER BY p.createdAt DESC
+        """)
+    Slice<PostSummaryView> findPublishedSummariesByTagAndCategory(
+        @Param("tagSlug") String tagSlug,
+        @Param("categorySlug") String categorySlug,
+        Pageable pageable
+    );
+
+    long countByPublishedTrue();
+
+    long countByArchivedTrue();
+
+    @Query("""
+        SELECT COUNT(p) FROM BlogPost p
+        WHERE p.published = true
+        AND EXISTS (SELECT 1 FROM BlogPost tp JOIN tp.tags t WHERE tp.id = p.id AND t.slug = :tagSlug)
+        """)
+    long countPublishedByTagSlug(@Param("tagSlug") String tagSlug);
+
+    @Query("""
+        SELECT COUNT(p) FROM BlogPost p
+        WHERE p.published = true AND p.category.slug = :categorySlug
+        """)
+    long countPublishedByCategorySlug(@Param("categorySlug") String categorySlug);
+
+    @Query("""
+        SELECT COUNT(p) FROM BlogPost p
+        WHERE p.published = true
+        AND p.category.slug = :categorySlug
+        AND EXISTS (SELECT 1 FROM BlogPost tp JOIN tp.tags t WHERE tp.id = p.id AND t.slug = :tagSlug)
+        """)
+    long countPublishedByTagAndCategory(@Param("tagSlug") String tagSlug, @Param("categorySlug") String categorySlug);
+
+    // Keyset (cursor) variants of the listings above: rows strictly after the (createdAt, id)
+    // position, newest first. No OFFSET and no COUNT, so every page costs the same.
+    // Callers request one extra row through the Pageable to learn whether a next page exists.
+
+    /**
+     * Published post summaries after the given cursor position.
+     */
+    @Query("""
+        SELECT p.id AS id, p.title AS title, p.slug AS slug, p.excerpt AS excerpt,
+               p.author AS author, p.coverImageUrl AS coverImageUrl, p.coverThumbnailUrl AS coverThumbnailUrl,
+               p.coverCardUrl AS coverCardUrl, p.readTime AS readTime,
+               p.archived AS archived, c.name AS categoryName, c.slug AS categorySlug,
+               p.createdAt AS createdAt, p.updatedAt AS updatedAt
+        FROM BlogPost p
+        LEFT JOIN p.category c
+        WHERE p.published = true
+        AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))
+        ORDER BY p.createdAt DESC, p.id DESC
+        """)
+    List<PostSummaryView> findPublishedSummariesAfter(
+        @Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Archived post summaries after the given cursor position.
+     */
+    @Query("""
+        SELECT p.id AS id, p.title AS title, p.slug AS slug, p.excerpt AS excerpt,
+               p.author AS author, p.coverImageUrl AS coverImageUrl, p.coverThumbnailUrl AS coverThumbnailUrl,
+               p.coverCardUrl AS coverCardUrl, p.readTime AS readTime,
+               p.archived AS archived, c.name AS categoryName, c.slug AS categorySlug,
+               p.createdAt AS createdAt, p.updatedAt AS updatedAt
+        FROM BlogPost p
+        LEFT JOIN p.category c
+        WHERE p.archived = true
+        AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))
+        ORDER BY p.createdAt DESC, p.id DESC
+        """)
+    List<PostSummaryView> findArchivedSummariesAfter(
+        @Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Published post summaries by tag slug after the given cursor position.
+     */
+    @Query("""
+        SELECT p.id AS id, p.title AS title, p.slug AS slug, p.excerpt AS excerpt,
+               p.author AS author, p.coverImageUrl AS coverImageUrl, p.coverThumbnailUrl AS coverThumbnailUrl,
+               p.coverCardUrl AS coverCardUrl, p.readTime AS readTime,
+               p.archived AS archived, c.name AS categoryName, c.slug AS categorySlug,
+               p.createdAt AS createdAt, p.updatedAt AS updatedAt
+        FROM BlogPost p
+        LEFT JOIN p.category c
+        WHERE p.published = true
+        AND EXISTS (SELECT 1 FROM BlogPost tp JOIN tp.tags t WHERE tp.id = p.id AND t.slug = :tagSlug)
+        AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))
+        ORDER BY p.createdAt DESC, p.id DESC
+        """)
+    List<PostSummaryView> findPublishedSummariesByTagSlugAfter(
+        @Param("tagSlug") String tagSlug,
+        @Param("createdAt") Instant createdAt,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+
+    /**
+     * Published post summaries by category slug after the given cursor position.
+     */
+    @Query("""
+        SELECT p.id AS id, p.title AS title, p.slug AS slug, p.excerpt AS excerpt,
+               p.author AS author, p.coverImageUrl AS coverImageUrl, p.coverThumbnailUrl AS coverThumbnailUrl,
+               p.coverCardUrl AS coverCardUrl, p.readTime AS readTime,
+               p.archived AS archived, c.name AS categoryName, c.slug AS categorySlug,
+               p.createdAt AS createdAt, p.updatedAt AS updatedAt
+        FROM BlogPost p
+        LEFT JOIN p.category c
+        WHERE p.published = true AND c.slug = :categorySlug
+        AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))
+        ORDER BY p.createdAt DESC, p.id DESC
+        """)
+    List<PostSummaryView> findPublishedSummariesByCategorySlugAfter(
+        @Param("categorySlug") String categorySlug,
+        @Param("createdAt") Instant createdAt,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+
+    /**
+     * Published post summaries by both tag and category after the given cursor position.
+     */
+    @Query("""
+        SELECT p.id AS id, p.title AS title, p.slug AS slug, p.excerpt AS excerpt,
+               p.author AS author, p.coverImageUrl AS coverImageUrl, p.coverThumbnailUrl AS coverThumbnailUrl,
+               p.coverCardUrl AS coverCardUrl, p.readTime AS readTime,
+               p.archived AS archived, c.name AS categoryName, c.slug AS categorySlug,
+               p.createdAt AS createdAt, p.updatedAt AS updatedAt
+        FROM BlogPost p
+        LEFT JOIN p.category c
+        WHERE p.published = true
+        AND c.slug = :categorySlug
+        AND EXISTS (SELECT 1 FROM BlogPost tp JOIN tp.tags t WHERE tp.id = p.id AND t.slug = :tagSlug)
+        AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))
+        ORDER BY p.createdAt DESC, p.id DESC
+        """)
+    List<PostSummaryView> findPublishedSummariesByTagAndCategoryAfter(
         @Param("tagSlug") String tagSlug,
         @Param("categorySlug") String categorySlug,
+        @Param("createdAt") Instant createdAt,
+        @Param("id") Long id,
         Pageable pageable
     );
 
     /**
-     * Get recently updated published posts (excludes archived).
+     * Find post summaries for the given ids (order is not guaranteed).
      */
     @Query("""
-        SELECT p FROM BlogPost p
+        SELECT p.id AS id, p.title AS title, p.slug AS slug, p.excerpt AS excerpt,
+               p.author AS author, p.coverImageUrl AS coverImageUrl, p.coverThumbnailUrl AS coverThumbnailUrl,
+               p.coverCardUrl AS coverCardUrl, p.readTime AS readTime,
+               p.archived AS archived, c.name AS categoryName, c.slug AS categorySlug,
+               p.createdAt AS createdAt, p.updatedAt AS updatedAt
+        FROM BlogPost p
+        LEFT JOIN p.category c
+        WHERE p.id IN :ids
+        """)
+    List<PostSummaryView> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Batch-load the tag names of the given posts in one statement.
+     */
+    @Query("""
+        SELECT p.id AS postId, t.name AS tagName
+        FROM BlogPost p
+        JOIN p.tags t
+        WHERE p.id IN :postIds
+        ORDER BY t.name
+        """)
+    List<PostTagView> findTagNamesByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    /**
+     * Load the content of the given posts, used only to generate missing excerpts.
+     */
+    @Query("SELECT p.id AS id, p.content AS content FROM BlogPost p WHERE p.id IN :ids")
+    List<PostContentView> findContentByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Get recently updated published post summaries (excludes archived).
+     */
+    @Query("""
+        SELECT p.id AS id, p.title AS title, p.slug AS slug, p.excerpt AS excerpt,
+               p.author AS author, p.coverImageUrl AS coverImageUrl, p.coverThumbnailUrl AS coverThumbnailUrl,
+               p.coverCardUrl AS coverCardUrl, p.readTime AS readTime,
+               p.archived AS archived, c.name AS categoryName, c.slug AS categorySlug,
+               p.createdAt AS createdAt, p.updatedAt AS updatedAt
+        FROM BlogPost p
+        LEFT JOIN p.category c
         WHERE p.published = true AND p.archived = false
         ORDER BY p.updatedAt DESC
         """)
-    List<BlogPost> findRecentlyUpdatedNonArchived(Pageable pageable);
+    List<PostSummaryView> findRecentlyUpdatedNonArchivedSummaries(Pageable pageable);
 
     /**
-     * Get recently updated published posts (includes archived).
+     * Get recently updated published post summaries (includes archived).
      */
     @Query("""
-        SELECT p FROM BlogPost p
+        SELECT p.id AS id, p.title AS title, p.slug AS slug, p.excerpt AS excerpt,
+               p.author AS author, p.coverImageUrl AS coverImageUrl, p.coverThumbnailUrl AS coverThumbnailUrl,
+               p.coverCardUrl AS coverCardUrl, p.readTime AS readTime,
+               p.archived AS archived, c.name AS categoryName, c.slug AS categorySlug,
+               p.createdAt AS createdAt, p.updatedAt AS updatedAt
+        FROM BlogPost p
+        LEFT JOIN p.category c
         WHERE p.published = true
         ORDER BY p.updatedAt DESC
         """)
-    List<BlogPost> findRecentlyUpdated(Pageable pageable);
+    List<PostSummaryView> findRecentlyUpdatedSummaries(Pageable pageable);
 
     /**
-     * Search published posts by title or content (case insensitive, excludes archived).
+     * Search published post ids by title or content (case insensitive, excludes archived).
      * Uses native query because JPQL LOWER() doesn't work with TEXT/CLOB columns in Hibernate 6.
+     * Only ids are selected; summaries are loaded separately via {@link #findSummariesByIdIn}.
      */
     @Query(value = """
-        SELECT * FROM posts p
+        SELECT p.id FROM posts p
         WHERE p.published = true AND p.archived = false
         AND (LOWER(p.title) LIKE LOWER(CONCAT('%', :query, '%'))
              OR LOWER(CAST(p.content AS TEXT)) LIKE LOWER(CONCAT('%', :query, '%')))
         ORDER BY p.created_at DESC
-        """, nativeQuery = true)
-    Page<BlogPost> searchPublishedNonArchived(@Param("query") String query, Pageable pageable);
+        """,
+        countQuery = """
+        SELECT COUNT(*) FROM posts p
+        WHERE p.published = true AND p.archived = false
+        AND (LOWER(p.title) LIKE LOWER(CONCAT('%', :query, '%'))
+             OR LOWER(CAST(p.content AS TEXT)) LIKE LOWER(CONCAT('%', :query, '%')))
+        """,
+        nativeQuery = true)
+    Page<Long> searchPublishedNonArchivedIds(@Param("query") String query, Pageable pageable);
 
     /**
-     * Search published posts by title or content (case insensitive).
+     * Search published post ids by title or content (case insensitive).
      * Uses native query because JPQL LOWER() doesn't work with TEXT/CLOB columns in Hibernate 6.
+     * Only ids are selected; summaries are loaded separately via {@link #findSummariesByIdIn}.
      */
     @Query(value = """
-        SELECT * FROM posts p
+        SELECT p.id FROM posts p
         WHERE p.published = true
         AND (LOWER(p.title) LIKE LOWER(CONCAT('%', :query, '%'))
              OR LOWER(CAST(p.content AS TEXT)) LIKE LOWER(CONCAT('%', :query, '%')))
         ORDER BY p.created_at DESC
-        """, nativeQuery = true)
-    Page<BlogPost> searchPublished(@Param("query") String query, Pageable pageable);
+        """,
+        countQuery = """
+        SELECT COUNT(*) FROM posts p
+        WHERE p.published = true
+        AND (LOWER(p.title) LIKE LOWER(CONCAT('%', :query, '%'))
+             OR LOWER(CAST(p.content AS TEXT)) LIKE LOWER(CONCAT('%', :query, '%')))
+        """,
+        nativeQuery = true)
+    Page<Long> searchPublishedIds(@Param("query") String query, Pageable pageable);
+
+    /**
+     * Full-text search of published post ids, ranked by relevance (PostgreSQL only).
+     * Matches against the generated, GIN-indexed search_vector column (title > excerpt > content)
+     * and accepts web-style syntax: quoted phrases, OR and -exclusions.
+     */
+    @Query(value = """
+        SELECT p.id FROM posts p, websearch_to_tsquery('english', :query) q
+        WHERE p.published = true
+        AND p.search_vector @@ q
+        ORDER BY ts_rank_cd(p.search_vector, q) DESC, p.created_at DESC
+        """,
+        countQuery = """
+        SELECT COUNT(*) FROM posts p
+        WHERE p.published = true
+        AND p.search_vector @@ websearch_to_tsquery('english', :query)
+        """,
+        nativeQuery = true)
+    Page<Long> searchPublishedIdsFullText(@Param("query") String query, Pageable pageable);
 }
@@ -1,6 +1,7 @@
 // backend: src/main/java/com/example/blog/repository/CategoryRepository.java
 package com.example.blog.repository;
 
+import com.example.blog.dto.CategoryResponse;
 import com.example.blog.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -28,5 +29,20 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
         ORDER BY c.name
         """)
     List<Category> findAllWithPublishedPosts();
+
+    /**
+     * Find all categories together with their number of published, non-archived posts.
+     * Aggregated in a single GROUP BY so the post rows are never hydrated.
+     */
+    @Query("""
+        SELECT new com.example.blog.dto.CategoryResponse(
+            c.id, c.name, c.slug, c.description,
+            CAST(COUNT(CASE WHEN p.published = true AND p.archived = false THEN p.id END) AS Integer))
+        FROM Category c
+        LEFT JOIN c.posts p
+        GROUP BY c.id, c.name, c.slug, c.description
+        ORDER BY c.id
+        """)
+    List<CategoryResponse> findAllWithPublishedPostCounts();
 }
 
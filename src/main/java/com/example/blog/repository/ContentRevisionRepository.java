@@ -0,0 +1,32 @@
+package com.example.blog.repository;
+
+import com.example.blog.entity.ContentRevision;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface ContentRevisionRepository extends JpaRepository<ContentRevision, Long> {
+
+    /**
+     * Atomically advance the revision; joins the caller's transaction, so the bump commits
+     * (and holds the row lock) together with the change it records.
+     *
+     * @return number of rows updated (0 if the revision row does not exist)
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ContentRevision r SET r.revision = r.revision + 1, r.updatedAt = :now WHERE r.id = :id")
+    int bump(@Param("id") Long id, @Param("now") Instant now);
+
+    /**
+     * Current revision, read from the database (inside a transaction that bumped it, that bump's value).
+     */
+    @Query("SELECT r.revision FROM ContentRevision r WHERE r.id = :id")
+    long findRevision(@Param("id") Long id);
+}
@@ -2,11 +2,39 @@ package com.example.blog.repository;
 
 import com.example.blog.entity.Image;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ImageRepository extends JpaRepository<Image, Long> {
     List<Image> findByPostId(Long postId);
-    Optional<Image> findByKey(String key);
+    // Content-addressed storage (local backend) gives identical uploads the same key
+    Optional<Image> findFirstByKeyOrderByIdAsc(String key);
+    long countByKey(String key);
+    Optional<Image> findByContentHash(String contentHash);
+    // Only READY images can be handed out as duplicates; PENDING ones have no URL yet
+    Optional<Image> findByContentHashAndStatus(String contentHash, Image.Status status);
+    List<Image> findByContentHashInAndStatus(Collection<String> contentHashes, Image.Status status);
+    Optional<Image> findFirstByUrl(String url);
+
+    /**
+     * Fail PENDING uploads created before {@code cutoff} (their worker died with the instance) and
+     * release their content hashes so the same file can be uploaded again.
+     *
+     * @return number of uploads failed
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("""
+        UPDATE Image i SET i.status = com.example.blog.entity.Image.Status.FAILED,
+                           i.contentHash = NULL, i.failureReason = :reason
+        WHERE i.status = com.example.blog.entity.Image.Status.PENDING AND i.uploadedAt < :cutoff
+        """)
+    int failPendingUploadedBefore(@Param("cutoff") Instant cutoff, @Param("reason") String reason);
 }
@@ -0,0 +1,11 @@
+package com.example.blog.repository;
+
+/**
+ * Projection of a post's content, only loaded when an excerpt has to be generated on the fly.
+ */
+public interface PostContentView {
+
+    Long getId();
+
+    String getContent();
+}
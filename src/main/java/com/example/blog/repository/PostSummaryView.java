@@ -0,0 +1,38 @@
+package com.example.blog.repository;
+
+import java.time.Instant;
+
+/**
+ * Closed projection of the columns needed to render a {@link com.example.blog.dto.PostSummaryResponse}.
+ * Deliberately excludes the post content so listings never read the TEXT column.
+ */
+public interface PostSummaryView {
+
+    Long getId();
+
+    String getTitle();
+
+    String getSlug();
+
+    String getExcerpt();
+
+    String getAuthor();
+
+    String getCoverImageUrl();
+
+    String getCoverThumbnailUrl();
+
+    String getCoverCardUrl();
+
+    Integer getReadTime();
+
+    Boolean getArchived();
+
+    String getCategoryName();
+
+    String getCategorySlug();
+
+    Instant getCreatedAt();
+
+    Instant getUpdatedAt();
+}
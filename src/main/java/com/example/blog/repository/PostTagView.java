@@ -0,0 +1,11 @@
+package com.example.blog.repository;
+
+/**
+ * Projection of a single post-to-tag association, used to batch-load tag names for a page of posts.
+ */
+public interface PostTagView {
+
+    Long getPostId();
+
+    String getTagName();
+}
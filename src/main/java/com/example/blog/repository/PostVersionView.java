@@ -0,0 +1,16 @@
+package com.example.blog.repository;
+
+import java.time.Instant;
+
+/**
+ * Projection of the identity and version of a post, used to validate a cached rendering
+ * without loading the post.
+ */
+public interface PostVersionView {
+
+    Long getId();
+
+    Boolean getPublished();
+
+    Instant getUpdatedAt();
+}
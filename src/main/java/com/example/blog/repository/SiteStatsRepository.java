@@ -7,14 +7,27 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface SiteStatsRepository extends JpaRepository<SiteStats, Long> {
 
     /**
-     * Atomically increment the visitor count to prevent race conditions.
+     * Atomically add a batch of visits to the visitor count to prevent race conditions.
      */
+    @Transactional
     @Modifying(clearAutomatically = true, flushAutomatically = true)
-    @Query("UPDATE SiteStats s SET s.totalVisitors = s.totalVisitors + 1, s.lastUpdated = CURRENT_TIMESTAMP WHERE s.id = :id")
-    void incrementVisitorCount(@Param("id") Long id);
+    @Query("UPDATE SiteStats s SET s.totalVisitors = s.totalVisitors + :delta, s.lastUpdated = CURRENT_TIMESTAMP WHERE s.id = :id")
+    void addVisitors(@Param("id") Long id, @Param("delta") long delta);
+
+    /**
+     * Total visitor count: the global row plus all not-yet-compacted shards.
+     * Read in one statement so a concurrent compaction is never seen half-applied.
+     */
+    @Query("""
+        SELECT s.totalVisitors + (SELECT COALESCE(SUM(sh.visitors), 0) FROM SiteStatsShard sh)
+        FROM SiteStats s
+        WHERE s.id = :id
+        """)
+    Long sumVisitors(@Param("id") Long id);
 }
@@ -0,0 +1,34 @@
+package com.example.blog.repository;
+
+import com.example.blog.entity.SiteStatsShard;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface SiteStatsShardRepository extends JpaRepository<SiteStatsShard, Integer> {
+
+    /**
+     * Atomically add a batch of visits to one counter shard.
+     *
+     * @return number of rows updated (0 if the shard row does not exist)
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE SiteStatsShard s SET s.visitors = s.visitors + :delta WHERE s.id = :id")
+    int addVisitors(@Param("id") Integer id, @Param("delta") long delta);
+
+    /**
+     * Lock all shards for compaction, in id order so concurrent compactions cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SiteStatsShard s ORDER BY s.id")
+    List<SiteStatsShard> findAllForUpdate();
+}
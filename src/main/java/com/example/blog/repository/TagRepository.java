@@ -1,11 +1,13 @@
 // backend: src/main/java/com/example/blog/repository/TagRepository.java
 package com.example.blog.repository;
 
+import com.example.blog.dto.TagResponse;
 import com.example.blog.entity.Tag;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +16,8 @@ public interface TagRepository extends JpaRepository<Tag, Long> {
 
     Optional<Tag> findByName(String name);
 
+    List<Tag> findByNameIn(Collection<String> names);
+
     Optional<Tag> findBySlug(String slug);
 
     boolean existsByName(String name);
@@ -42,5 +46,20 @@ public interface TagRepository extends JpaRepository<Tag, Long> {
         ORDER BY t.name
         """)
     List<Tag> findAllWithPublishedPosts();
+
+    /**
+     * Find all tags together with their number of published, non-archived posts.
+     * Aggregated in a single GROUP BY so the lazy posts collection is never initialised.
+     */
+    @Query("""
+        SELECT new com.example.blog.dto.TagResponse(
+            t.id, t.name, t.slug,
+            CAST(COUNT(CASE WHEN p.published = true AND p.archived = false THEN p.id END) AS Integer))
+        FROM Tag t
+        LEFT JOIN t.posts p
+        GROUP BY t.id, t.name, t.slug
+        ORDER BY t.name
+        """)
+    List<TagResponse> findAllWithPublishedPostCounts();
 }
 
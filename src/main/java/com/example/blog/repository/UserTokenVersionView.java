@@ -0,0 +1,11 @@
+package com.example.blog.repository;
+
+/**
+ * Projection of a user's current JWT token version.
+ */
+public interface UserTokenVersionView {
+
+    String getUsername();
+
+    Integer getTokenVersion();
+}
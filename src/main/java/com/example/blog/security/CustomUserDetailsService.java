@@ -1,38 +1,83 @@
-// backend: src/main/java/com/example/blog/security/CustomUserDetailsService.java
 package com.example.blog.security;
 
 import com.example.blog.entity.User;
 import com.example.blog.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.util.List;
 
 @Service
-@RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
 
+    // Username or email -> account snapshot; short-lived and cleared by evictAll() on user changes
+    private final Cache<String, CachedUser> users;
+
+    public CustomUserDetailsService(
+            UserRepository userRepository,
+            @Value("${app.security.user-cache.maximum-size:1000}") long maximumSize,
+            @Value("${app.security.user-cache.ttl:60s}") Duration ttl
+    ) {
+        this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
     @Override
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(usernameOrEmail)
-                .or(() -> userRepository.findByEmail(usernameOrEmail))
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + usernameOrEmail));
-
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                user.isEnabled(),
-                true, // accountNonExpired
-                true, // credentialsNonExpired
-                true, // accountNonLocked
-                List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))
+        CachedUser user = users.get(usernameOrEmail, this::loadUser);
+        if (user == null) {
+            throw new UsernameNotFoundException("User not found: " + usernameOrEmail);
+        }
+        // A fresh UserDetails per call: the authentication manager erases credentials on the instance it returns
+        return new VersionedUser(
+                user.username(),
+                user.password(),
+                user.enabled(),
+                List.of(new SimpleGrantedAuthority("ROLE_" + user.role().name())),
+                user.tokenVersion()
         );
     }
-}
 
+    /**
+     * Drop all cached accounts; call after creating or changing a user. Inside a transaction this
+     * happens once it commits: evicting earlier would let a concurrent request cache the account as
+     * it was before the change (e.g. with the old token version) for the full TTL.
+     */
+    public void evictAll() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    users.invalidateAll();
+                }
+            });
+        } else {
+            users.invalidateAll();
+        }
+    }
+
+    private CachedUser loadUser(String usernameOrEmail) {
+        return userRepository.findByUsername(usernameOrEmail)
+                .or(() -> userRepository.findByEmail(usernameOrEmail))
+                .map(user -> new CachedUser(user.getUsername(), user.getPassword(), user.isEnabled(), user.getRole(),
+                        user.getTokenVersion()))
+                .orElse(null);
+    }
+
+    private record CachedUser(String username, String password, boolean enabled, User.Role role, int tokenVersion) {
+    }
+}
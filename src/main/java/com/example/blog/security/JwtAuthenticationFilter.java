@@ -1,15 +1,18 @@
 // backend: src/main/java/com/example/blog/security/JwtAuthenticationFilter.java
 package com.example.blog.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -25,6 +28,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+
+    // Opt-in: authenticate from the token's claims without loading the user
+    @Value("${jwt.stateless-principal:false}")
+    private boolean statelessPrincipal;
 
     @Override
     protected void doFilterInternal(
@@ -41,12 +49,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             final String jwt = authHeader.substring(7);
-            final String username = jwtService.extractUsername(jwt);
+            // Verified once per token lifetime; throws if invalid or expired
+            final Claims claims = jwtService.extractAllClaims(jwt);
+            final String username = claims.getSubject();
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = statelessPrincipal
+                        ? principalFromClaims(claims)
+                        : principalFromAccount(claims);
 
-                if (jwtService.isTokenValid(jwt, userDetails.getUsername())) {
+                if (userDetails != null && jwtService.isTokenValid(claims, userDetails.getUsername())) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -62,5 +74,42 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Load the account and check the token against it: the account must be enabled and the
+     * token's version must be the account's current one (bumped by logout-all). Returns null otherwise.
+     * Accounts are cached briefly, so a revocation on another instance applies within that TTL.
+     */
+    private UserDetails principalFromAccount(Claims claims) {
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(claims.getSubject());
+        if (!userDetails.isEnabled()) {
+            return null;
+        }
+        if (userDetails instanceof VersionedUser versioned && versioned.getTokenVersion() != tokenVersion(claims)) {
+            return null;
+        }
+        return userDetails;
+    }
+
+    /**
+     * Build the principal from the signed claims alone; revocation is checked against the
+     * in-memory token versions. Returns null if the token has been revoked.
+     */
+    private UserDetails principalFromClaims(Claims claims) {
+        String role = claims.get(JwtService.ROLE_CLAIM, String.class);
+        if (role == null || !tokenVersionRegistry.isCurrent(claims.getSubject(), tokenVersion(claims))) {
+            return null;
+        }
+        return User.withUsername(claims.getSubject())
+                .password("")
+                .authorities("ROLE_" + role)
+                .build();
+    }
+
+    // Tokens issued before versions were introduced carry no claim and count as version 0
+    private static int tokenVersion(Claims claims) {
+        Integer tokenVersion = claims.get(JwtService.TOKEN_VERSION_CLAIM, Integer.class);
+        return tokenVersion != null ? tokenVersion : 0;
+    }
 }
 
@@ -0,0 +1,77 @@
+package com.example.blog.security;
+
+import com.example.blog.repository.UserRepository;
+import com.example.blog.repository.UserTokenVersionView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of every enabled user's token version, consulted by the stateless principal
+ * mode ({@code jwt.stateless-principal=true}) instead of the users table.
+ *
+ * Loaded at startup and refreshed periodically so revocations and disabled accounts from other
+ * instances are picked up; local revocations apply immediately. The database stays authoritative:
+ * each refresh overwrites the local view.
+ */
+@Component
+@Slf4j
+public class TokenVersionRegistry {
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+
+    private final Map<String, Integer> versions = new ConcurrentHashMap<>();
+
+    public TokenVersionRegistry(
+            UserRepository userRepository,
+            @Value("${jwt.stateless-principal:false}") boolean enabled
+    ) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${jwt.token-versions.refresh-interval-ms:60000}",
+            fixedDelayString = "${jwt.token-versions.refresh-interval-ms:60000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        Set<String> usernames = new HashSet<>();
+        for (UserTokenVersionView user : userRepository.findEnabledTokenVersions()) {
+            usernames.add(user.getUsername());
+            versions.put(user.getUsername(), user.getTokenVersion());
+        }
+        // Deleted or disabled accounts lose all their tokens
+        versions.keySet().retainAll(usernames);
+        log.debug("Refreshed token versions: users={}", versions.size());
+    }
+
+    /**
+     * Whether a token carrying the given version is still valid for the user.
+     * Unknown (deleted or disabled) users have no valid tokens.
+     */
+    public boolean isCurrent(String username, int tokenVersion) {
+        Integer current = versions.get(username);
+        return current != null && current == tokenVersion;
+    }
+
+    /**
+     * Record a user's version after it was issued or bumped on this instance.
+     */
+    public void update(String username, int tokenVersion) {
+        if (enabled) {
+            versions.merge(username, tokenVersion, Math::max);
+        }
+    }
+}
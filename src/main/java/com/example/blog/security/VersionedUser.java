@@ -0,0 +1,25 @@
+package com.example.blog.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * {@link User} that also carries the account's current token version, so a JWT's {@code ver}
+ * claim can be checked against the loaded account.
+ */
+public class VersionedUser extends User {
+
+    private final int tokenVersion;
+
+    public VersionedUser(String username, String password, boolean enabled,
+                         Collection<? extends GrantedAuthority> authorities, int tokenVersion) {
+        super(username, password, enabled, true, true, true, authorities);
+        this.tokenVersion = tokenVersion;
+    }
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+}
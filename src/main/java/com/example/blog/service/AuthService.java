@@ -6,7 +6,9 @@ import com.example.blog.dto.LoginRequest;
 import com.example.blog.dto.RegisterRequest;
 import com.example.blog.entity.User;
 import com.example.blog.repository.UserRepository;
+import com.example.blog.security.CustomUserDetailsService;
 import com.example.blog.security.JwtService;
+import com.example.blog.security.TokenVersionRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -27,6 +29,8 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final CustomUserDetailsService userDetailsService;
+    private final TokenVersionRegistry tokenVersionRegistry;
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -51,9 +55,10 @@ public class AuthService {
                 .build();
 
         User savedUser = userRepository.save(user);
+        userDetailsService.evictAll();
         log.info("New user registered: username={}, email={}", savedUser.getUsername(), savedUser.getEmail());
 
-        String token = jwtService.generateToken(savedUser.getUsername(), savedUser.getRole().name());
+        String token = issueToken(savedUser);
 
         return buildAuthResponse(savedUser, token);
     }
@@ -79,7 +84,7 @@ public class AuthService {
         user.setLastLoginAt(Instant.now());
         userRepository.save(user);
 
-        String token = jwtService.generateToken(user.getUsername(), user.getRole().name());
+        String token = issueToken(user);
         log.info("User logged in: username={}", user.getUsername());
 
         return buildAuthResponse(user, token);
@@ -94,6 +99,26 @@ public class AuthService {
                 .build();
     }
 
+    /**
+     * Revoke every token issued to the user so far by bumping their token version.
+     */
+    @Transactional
+    public void revokeTokens(String username) {
+        if (userRepository.incrementTokenVersion(username) == 0) {
+            throw new IllegalArgumentException("User not found");
+        }
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        tokenVersionRegistry.update(username, user.getTokenVersion());
+        userDetailsService.evictAll();
+        log.info("Revoked tokens: username={}, tokenVersion={}", username, user.getTokenVersion());
+    }
+
+    private String issueToken(User user) {
+        tokenVersionRegistry.update(user.getUsername(), user.getTokenVersion());
+        return jwtService.generateToken(user.getUsername(), user.getRole().name(), user.getTokenVersion());
+    }
+
     private AuthResponse buildAuthResponse(User user, String token) {
         return AuthResponse.builder()
                 .accessToken(token)
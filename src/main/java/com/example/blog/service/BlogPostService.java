@@ -89,6 +89,46 @@ public interface BlogPostService {
      */
     Page<PostSummaryResponse> findByTagAndCategory(String tagSlug, String categorySlug, Pageable pageable);
 
+    /**
+     * Retrieves published posts after a cursor position (keyset pagination, no total count).
+     *
+     * @param cursor position to continue from; {@link PostCursor#FIRST} for the first page
+     * @param size page size
+     * @return one page of post summaries with the cursor of the next page
+     */
+    CursorPageResponse<PostSummaryResponse> findAllPublished(PostCursor cursor, int size);
+
+    /**
+     * Retrieves published posts by tag after a cursor position.
+     *
+     * @param tagSlug the tag slug
+     * @param cursor position to continue from
+     * @param size page size
+     * @return one page of post summaries with the cursor of the next page
+     */
+    CursorPageResponse<PostSummaryResponse> findByTag(String tagSlug, PostCursor cursor, int size);
+
+    /**
+     * Retrieves published posts by category after a cursor position.
+     *
+     * @param categorySlug the category slug
+     * @param cursor position to continue from
+     * @param size page size
+     * @return one page of post summaries with the cursor of the next page
+     */
+    CursorPageResponse<PostSummaryResponse> findByCategory(String categorySlug, PostCursor cursor, int size);
+
+    /**
+     * Retrieves published posts by both tag and category after a cursor position.
+     *
+     * @param tagSlug the tag slug
+     * @param categorySlug the category slug
+     * @param cursor position to continue from
+     * @param size page size
+     * @return one page of post summaries with the cursor of the next page
+     */
+    CursorPageResponse<PostSummaryResponse> findByTagAndCategory(String tagSlug, String categorySlug, PostCursor cursor, int size);
+
     /**
      * Searches published posts by query string.
      *
@@ -98,6 +138,16 @@ public interface BlogPostService {
      */
     Page<PostSummaryResponse> search(String query, Pageable pageable);
 
+    /**
+     * Suggests post titles, tags and categories starting with the given prefix.
+     * Served from memory, without touching the database.
+     *
+     * @param prefix the typed prefix
+     * @param limit maximum number of suggestions to return
+     * @return list of suggestions, best first
+     */
+    List<SuggestionResponse> suggest(String prefix, int limit);
+
     /**
      * Retrieves recently updated posts.
      *
@@ -121,6 +171,15 @@ public interface BlogPostService {
      */
     Page<PostSummaryResponse> findAllArchived(Pageable pageable);
 
+    /**
+     * Retrieves archived posts after a cursor position.
+     *
+     * @param cursor position to continue from
+     * @param size page size
+     * @return one page of archived post summaries with the cursor of the next page
+     */
+    CursorPageResponse<PostSummaryResponse> findAllArchived(PostCursor cursor, int size);
+
     /**
      * Archives a blog post.
      *
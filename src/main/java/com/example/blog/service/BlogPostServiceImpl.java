@@ -1,24 +1,36 @@
 // backend: src/main/java/com/example/blog/service/BlogPostServiceImpl.java
 package com.example.blog.service;
 
+import com.example.blog.config.CacheConfig;
 import com.example.blog.dto.*;
 import com.example.blog.entity.BlogPost;
 import com.example.blog.entity.Category;
+import com.example.blog.entity.Image;
+import com.example.blog.entity.ImageVariant;
 import com.example.blog.entity.Tag;
+import com.example.blog.event.PostChangedEvent;
+import com.example.blog.event.PostSnapshot;
 import com.example.blog.exception.ResourceNotFoundException;
 import com.example.blog.mapper.BlogPostMapper;
 import com.example.blog.repository.BlogPostRepository;
 import com.example.blog.repository.CategoryRepository;
+import com.example.blog.repository.ImageRepository;
 import com.example.blog.repository.TagRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -31,15 +43,30 @@ public class BlogPostServiceImpl implements BlogPostService {
     private final BlogPostRepository blogPostRepository;
     private final TagRepository tagRepository;
     private final CategoryRepository categoryRepository;
+    private final ImageRepository imageRepository;
+    private final PostSummaryAssembler postSummaryAssembler;
+    private final PublishedFeedCache publishedFeedCache;
+    private final FeedCountCache feedCountCache;
+    private final PostSearchIndex postSearchIndex;
+    private final PostSuggestionIndex postSuggestionIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.search.mode:LIKE}")
+    private SearchMode searchMode;
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.POSTS_BY_SLUG, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.POSTS_BY_ID, allEntries = true)
+    })
     public PostResponse createPost(CreatePostRequest request) {
         if (blogPostRepository.existsByTitle(request.getTitle())) {
             throw new IllegalArgumentException("A post with this title already exists");
         }
 
         BlogPost post = BlogPostMapper.toEntity(request);
+        applyCoverVariants(post);
 
         // Handle category
         if (request.getCategoryName() != null && !request.getCategoryName().isBlank()) {
@@ -55,16 +82,25 @@ public class BlogPostServiceImpl implements BlogPostService {
 
         BlogPost saved = blogPostRepository.save(post);
         log.info("Created new post: id={}, title={}", saved.getId(), saved.getTitle());
+        eventPublisher.publishEvent(new PostChangedEvent(saved.getId(), null, PostSnapshot.of(saved)));
         return BlogPostMapper.toResponse(saved, null);
     }
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.POSTS_BY_SLUG, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.POSTS_BY_ID, allEntries = true)
+    })
     public PostResponse updatePost(Long id, UpdatePostRequest request) {
         BlogPost post = blogPostRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found with id: " + id));
+        PostSnapshot before = PostSnapshot.of(post);
 
         BlogPostMapper.updateEntity(post, request);
+        if (request.getCoverImageUrl() != null) {
+            applyCoverVariants(post);
+        }
 
         // Handle category update
         if (request.getCategoryName() != null) {
@@ -86,33 +122,46 @@ public class BlogPostServiceImpl implements BlogPostService {
             }
         }
 
+        // A tag-only change does not dirty the row, so bump updatedAt by hand:
+        // cached renderings and ETags are validated against it
+        post.setUpdatedAt(BlogPost.now());
         BlogPost saved = blogPostRepository.save(post);
         log.info("Updated post: id={}", saved.getId());
+        eventPublisher.publishEvent(new PostChangedEvent(saved.getId(), before, PostSnapshot.of(saved)));
         return BlogPostMapper.toResponse(saved, null);
     }
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.POSTS_BY_SLUG, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.POSTS_BY_ID, allEntries = true)
+    })
     public void deletePost(Long id) {
         BlogPost post = blogPostRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found with id: " + id));
 
+        PostSnapshot before = PostSnapshot.of(post);
+
         // Clear tag associations before deletion
         post.getTags().clear();
         blogPostRepository.delete(post);
         log.info("Deleted post: id={}", id);
+        eventPublisher.publishEvent(new PostChangedEvent(id, before, null));
     }
 
     @Override
     @Transactional
+    @Cacheable(cacheNames = CacheConfig.POSTS_BY_ID, key = "#id")
     public PostResponse findById(Long id) {
-        BlogPost post = blogPostRepository.findById(id)
+        BlogPost post = blogPostRepository.findWithCategoryAndTagsById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found with id: " + id));
         return BlogPostMapper.toResponse(post, null);
     }
 
     @Override
     @Transactional
+    @Cacheable(cacheNames = CacheConfig.POSTS_BY_SLUG, key = "#slug")
     public PostResponse findBySlug(String slug) {
         BlogPost post = blogPostRepository.findBySlug(slug)
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found with slug: " + slug));
@@ -122,51 +171,96 @@ public class BlogPostServiceImpl implements BlogPostService {
     @Override
     @Transactional
     public Page<PostSummaryResponse> findAllPublished(Pageable pageable) {
-        return blogPostRepository.findByPublishedTrueOrderByCreatedAtDesc(pageable)
-                .map(BlogPostMapper::toSummary);
+        if (publishedFeedCache.covers(pageable)) {
+            return publishedFeedCache.get(pageable);
+        }
+        return postSummaryAssembler.toSummaryPage(
+                blogPostRepository.findPublishedSummaries(pageable), feedCountCache::countPublished);
     }
 
     @Override
     @Transactional
     public Page<PostSummaryResponse> findByTag(String tagSlug, Pageable pageable) {
-        return blogPostRepository.findPublishedByTagSlug(tagSlug, pageable)
-                .map(BlogPostMapper::toSummary);
+        return postSummaryAssembler.toSummaryPage(
+                blogPostRepository.findPublishedSummariesByTagSlug(tagSlug, pageable),
+                () -> feedCountCache.countByTag(tagSlug));
     }
 
     @Override
     @Transactional
     public Page<PostSummaryResponse> findByCategory(String categorySlug, Pageable pageable) {
-        return blogPostRepository.findPublishedByCategorySlug(categorySlug, pageable)
-                .map(BlogPostMapper::toSummary);
+        return postSummaryAssembler.toSummaryPage(
+                blogPostRepository.findPublishedSummariesByCategorySlug(categorySlug, pageable),
+                () -> feedCountCache.countByCategory(categorySlug));
     }
 
     @Override
     @Transactional
     public Page<PostSummaryResponse> findByTagAndCategory(String tagSlug, String categorySlug, Pageable pageable) {
-        return blogPostRepository.findPublishedByTagAndCategory(tagSlug, categorySlug, pageable)
-                .map(BlogPostMapper::toSummary);
+        return postSummaryAssembler.toSummaryPage(
+                blogPostRepository.findPublishedSummariesByTagAndCategory(tagSlug, categorySlug, pageable),
+                () -> feedCountCache.countByTagAndCategory(tagSlug, categorySlug));
+    }
+
+    @Override
+    @Transactional
+    public CursorPageResponse<PostSummaryResponse> findAllPublished(PostCursor cursor, int size) {
+        return postSummaryAssembler.toCursorPage(
+                blogPostRepository.findPublishedSummariesAfter(cursor.createdAt(), cursor.id(), keysetLimit(size)), size);
+    }
+
+    @Override
+    @Transactional
+    public CursorPageResponse<PostSummaryResponse> findByTag(String tagSlug, PostCursor cursor, int size) {
+        return postSummaryAssembler.toCursorPage(
+                blogPostRepository.findPublishedSummariesByTagSlugAfter(tagSlug, cursor.createdAt(), cursor.id(), keysetLimit(size)), size);
+    }
+
+    @Override
+    @Transactional
+    public CursorPageResponse<PostSummaryResponse> findByCategory(String categorySlug, PostCursor cursor, int size) {
+        return postSummaryAssembler.toCursorPage(
+                blogPostRepository.findPublishedSummariesByCategorySlugAfter(categorySlug, cursor.createdAt(), cursor.id(), keysetLimit(size)), size);
+    }
+
+    @Override
+    @Transactional
+    public CursorPageResponse<PostSummaryResponse> findByTagAndCategory(String tagSlug, String categorySlug, PostCursor cursor, int size) {
+        return postSummaryAssembler.toCursorPage(
+                blogPostRepository.findPublishedSummariesByTagAndCategoryAfter(
+                        tagSlug, categorySlug, cursor.createdAt(), cursor.id(), keysetLimit(size)), size);
     }
 
     @Override
     @Transactional
     public Page<PostSummaryResponse> search(String query, Pageable pageable) {
-        return blogPostRepository.searchPublished(query, pageable)
-                .map(BlogPostMapper::toSummary);
+        if (searchMode == SearchMode.INDEX && postSearchIndex.isReady()) {
+            return postSearchIndex.search(query, pageable);
+        }
+        Page<Long> ids = switch (searchMode) {
+            case FULL_TEXT -> blogPostRepository.searchPublishedIdsFullText(query, pageable);
+            // INDEX falls back to LIKE until the index has been built
+            case LIKE, INDEX -> blogPostRepository.searchPublishedIds(query, pageable);
+        };
+        return postSummaryAssembler.toSummaryPageFromIds(ids);
+    }
+
+    @Override
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        return postSuggestionIndex.suggest(prefix, limit);
     }
 
     @Override
     @Transactional
     public List<PostSummaryResponse> findRecentlyUpdated(int limit) {
         Pageable pageable = PageRequest.of(0, limit);
-        return blogPostRepository.findRecentlyUpdated(pageable).stream()
-                .map(BlogPostMapper::toSummary)
-                .collect(Collectors.toList());
+        return postSummaryAssembler.toSummaries(blogPostRepository.findRecentlyUpdatedSummaries(pageable));
     }
 
     @Override
     @Transactional
     public List<PostResponse> findAll() {
-        return blogPostRepository.findAll().stream()
+        return blogPostRepository.findAllWithCategoryAndTags().stream()
                 .map(post -> BlogPostMapper.toResponse(post, null))
                 .collect(Collectors.toList());
     }
@@ -174,72 +268,78 @@ public class BlogPostServiceImpl implements BlogPostService {
     @Override
     @Transactional
     public Page<PostSummaryResponse> findAllArchived(Pageable pageable) {
-        return blogPostRepository.findByArchivedTrueOrderByCreatedAtDesc(pageable)
-                .map(BlogPostMapper::toSummary);
+        return postSummaryAssembler.toSummaryPage(
+                blogPostRepository.findArchivedSummaries(pageable), feedCountCache::countArchived);
     }
 
     @Override
     @Transactional
+    public CursorPageResponse<PostSummaryResponse> findAllArchived(PostCursor cursor, int size) {
+        return postSummaryAssembler.toCursorPage(
+                blogPostRepository.findArchivedSummariesAfter(cursor.createdAt(), cursor.id(), keysetLimit(size)), size);
+    }
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.POSTS_BY_SLUG, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.POSTS_BY_ID, allEntries = true)
+    })
     public PostResponse archivePost(Long id) {
         BlogPost post = blogPostRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found with id: " + id));
+        PostSnapshot before = PostSnapshot.of(post);
         post.setArchived(true);
         BlogPost saved = blogPostRepository.save(post);
         log.info("Archived post: id={}", id);
+        eventPublisher.publishEvent(new PostChangedEvent(id, before, PostSnapshot.of(saved)));
         return BlogPostMapper.toResponse(saved, null);
     }
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.POSTS_BY_SLUG, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.POSTS_BY_ID, allEntries = true)
+    })
     public PostResponse unarchivePost(Long id) {
         BlogPost post = blogPostRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found with id: " + id));
+        PostSnapshot before = PostSnapshot.of(post);
         post.setArchived(false);
         BlogPost saved = blogPostRepository.save(post);
         log.info("Unarchived post: id={}", id);
+        eventPublisher.publishEvent(new PostChangedEvent(id, before, PostSnapshot.of(saved)));
         return BlogPostMapper.toResponse(saved, null);
     }
 
     @Override
     @Transactional
     public List<CategoryResponse> getAllCategories() {
-        return categoryRepository.findAll().stream()
-                .map(category -> {
-                    long postCount = blogPostRepository.findByPublishedTrueAndArchivedFalseOrderByCreatedAtDesc(PageRequest.of(0, Integer.MAX_VALUE))
-                            .stream()
-                            .filter(post -> post.getCategory() != null && post.getCategory().getId().equals(category.getId()))
-                            .count();
-                    return CategoryResponse.builder()
-                            .id(category.getId())
-                            .name(category.getName())
-                            .slug(category.getSlug())
-                            .description(category.getDescription())
-                            .postCount((int) postCount)
-                            .build();
-                })
-                .collect(Collectors.toList());
+        return categoryRepository.findAllWithPublishedPostCounts();
     }
 
     @Override
     @Transactional
     public List<TagResponse> getAllTags() {
-        return tagRepository.findAll().stream()
-                .map(tag -> {
-                    long postCount = tag.getPosts().stream()
-                            .filter(post -> post.isPublished() && !post.isArchived())
-                            .count();
-                    return TagResponse.builder()
-                            .id(tag.getId())
-                            .name(tag.getName())
-                            .slug(tag.getSlug())
-                            .postCount((int) postCount)
-                            .build();
-                })
-                .collect(Collectors.toList());
+        return tagRepository.findAllWithPublishedPostCounts();
     }
 
     // Helper methods
 
+    /**
+     * Copies the resized cover URLs from the cover's {@link Image} row onto the post, so listings
+     * can serve a card-sized cover without another query. Covers not uploaded through the image
+     * API get no variants.
+     */
+    private void applyCoverVariants(BlogPost post) {
+        Image cover = post.getCoverImageUrl() == null || post.getCoverImageUrl().isBlank() ? null
+                : imageRepository.findFirstByUrl(post.getCoverImageUrl()).orElse(null);
+        post.setCoverThumbnailUrl(cover != null ? cover.variantUrl(ImageVariant.Size.THUMBNAIL) : null);
+        post.setCoverCardUrl(cover != null ? cover.variantUrl(ImageVariant.Size.CARD) : null);
+        post.setCoverFullUrl(cover != null ? cover.variantUrl(ImageVariant.Size.FULL) : null);
+    }
+
     private Category findOrCreateCategory(String name) {
         return categoryRepository.findByName(name)
                 .orElseGet(() -> {
@@ -250,22 +350,35 @@ public class BlogPostServiceImpl implements BlogPostService {
                 });
     }
 
+    /**
+     * Resolves tag names with one lookup; missing tags are persisted together so their INSERTs
+     * go out as a single JDBC batch at flush.
+     */
     private Set<Tag> findOrCreateTags(List<String> tagNames) {
-        Set<Tag> tags = new HashSet<>();
-        for (String tagName : tagNames) {
-            String trimmed = tagName.trim();
-            if (!trimmed.isBlank()) {
-                Tag tag = tagRepository.findByName(trimmed)
-                        .orElseGet(() -> {
-                            Tag newTag = Tag.builder()
-                                    .name(trimmed)
-                                    .build();
-                            return tagRepository.save(newTag);
-                        });
-                tags.add(tag);
-            }
+        Set<String> names = tagNames.stream()
+                .map(String::trim)
+                .filter(name -> !name.isBlank())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (names.isEmpty()) {
+            return new HashSet<>();
+        }
+
+        Set<Tag> tags = new HashSet<>(tagRepository.findByNameIn(names));
+        tags.forEach(tag -> names.remove(tag.getName()));
+        if (!names.isEmpty()) {
+            tags.addAll(tagRepository.saveAll(names.stream()
+                    .map(name -> Tag.builder().name(name).build())
+                    .toList()));
         }
         return tags;
     }
+
+    // Fetch one row past the page so the assembler can tell whether a next page exists
+    private static Pageable keysetLimit(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must not be less than one");
+        }
+        return PageRequest.of(0, size + 1);
+    }
 }
 
@@ -0,0 +1,152 @@
+package com.example.blog.service;
+
+import com.example.blog.entity.ContentRevision;
+import com.example.blog.event.ContentRevisionChangedEvent;
+import com.example.blog.event.PostChangedEvent;
+import com.example.blog.repository.ContentRevisionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Global version of the published content (post listings, tags, categories), used as the
+ * ETag / Last-Modified of listing endpoints. Tags and categories only change through posts,
+ * so the post revision covers them as well.
+ *
+ * The version is the {@link ContentRevision} row, bumped in the same transaction as every post
+ * change, so all instances agree on it. Reads re-check the row at most every
+ * {@code app.http.cache.content-version-check-interval}; a change committed on another instance
+ * is therefore visible here within that interval, and immediately after a local change.
+ * When a new revision is seen that this instance did not commit itself, a
+ * {@link ContentRevisionChangedEvent} lets in-memory read models drop state they could only have
+ * kept current from this instance's own events. Revisions committed here are not announced: the
+ * read models already handled their {@link PostChangedEvent}.
+ */
+@Component
+@Slf4j
+public class ContentVersion {
+
+    private final ContentRevisionRepository contentRevisionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long checkIntervalNanos;
+
+    // Revisions committed by this instance and not yet seen by a read of the row
+    private final Set<Long> localRevisions = ConcurrentHashMap.newKeySet();
+    private volatile Checked current;
+
+    public ContentVersion(
+            ContentRevisionRepository contentRevisionRepository,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${app.http.cache.content-version-check-interval:5s}") Duration checkInterval
+    ) {
+        this.contentRevisionRepository = contentRevisionRepository;
+        this.eventPublisher = eventPublisher;
+        this.checkIntervalNanos = checkInterval.toNanos();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureRevisionRow() {
+        if (contentRevisionRepository.existsById(ContentRevision.GLOBAL_ID)) {
+            return;
+        }
+        try {
+            contentRevisionRepository.save(new ContentRevision(ContentRevision.GLOBAL_ID, 0L, Instant.now()));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Content revision row created concurrently: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Records the change in the revision row before the post transaction commits, and remembers
+     * the resulting revision as local once it has committed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void recordChange(PostChangedEvent event) {
+        Instant now = Instant.now();
+        long revision;
+        if (contentRevisionRepository.bump(ContentRevision.GLOBAL_ID, now) == 0) {
+            revision = contentRevisionRepository.save(new ContentRevision(ContentRevision.GLOBAL_ID, 1L, now)).getRevision();
+        } else {
+            // the bump holds the row lock until commit, so this is the revision of this change
+            revision = contentRevisionRepository.findRevision(ContentRevision.GLOBAL_ID);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    localRevisions.add(revision);
+                }
+            });
+        } else {
+            localRevisions.add(revision);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        // re-read on next use, so this instance's own change is visible straight away
+        Checked checked = current;
+        if (checked != null) {
+            current = new Checked(checked.revision(), checked.lastModified(), checked.checkedAt() - checkIntervalNanos);
+        }
+    }
+
+    public String etag() {
+        return "r" + revision();
+    }
+
+    /**
+     * The content revision, as of the last check of the shared row.
+     */
+    public long revision() {
+        return current().revision();
+    }
+
+    public Instant lastModified() {
+        return current().lastModified();
+    }
+
+    private Checked current() {
+        Checked checked = current;
+        if (checked != null && System.nanoTime() - checked.checkedAt() < checkIntervalNanos) {
+            return checked;
+        }
+        ContentRevision row = contentRevisionRepository.findById(ContentRevision.GLOBAL_ID)
+                .orElseGet(() -> new ContentRevision(ContentRevision.GLOBAL_ID, 0L, Instant.EPOCH));
+        Checked fresh = new Checked(row.getRevision(), row.getUpdatedAt(), System.nanoTime());
+        current = fresh;
+        if (checked != null && checked.revision() != fresh.revision() && !committedHere(checked.revision(), fresh.revision())) {
+            eventPublisher.publishEvent(new ContentRevisionChangedEvent(fresh.revision()));
+        }
+        return fresh;
+    }
+
+    /**
+     * Whether every revision after {@code from} up to {@code to} was committed by this instance.
+     * A local commit not yet registered counts as foreign, which only costs a needless event.
+     */
+    private boolean committedHere(long from, long to) {
+        boolean local = true;
+        for (long revision = from + 1; revision <= to && local; revision++) {
+            local = localRevisions.contains(revision);
+        }
+        localRevisions.removeIf(revision -> revision <= to);
+        return local;
+    }
+
+    private record Checked(long revision, Instant lastModified, long checkedAt) {
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.blog.service;
+
+import com.example.blog.event.ContentRevisionChangedEvent;
+import com.example.blog.event.PostChangedEvent;
+import com.example.blog.event.PostSnapshot;
+import com.example.blog.repository.BlogPostRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Cached post totals per listing feed (all published, archived, per tag, per category and
+ * per tag+category), so offset listings can report totals without a COUNT on every request.
+ *
+ * Each total is counted once, then adjusted in place from the before/after snapshots of
+ * {@link PostChangedEvent}. Feeds that are not cached yet are left alone and counted on first use.
+ * The TTL bounds drift from changes that race with a first count.
+ */
+@Component
+public class FeedCountCache {
+
+    private static final String PUBLISHED = "published";
+    private static final String ARCHIVED = "archived";
+
+    private final BlogPostRepository blogPostRepository;
+    private final Cache<String, Long> counts;
+
+    public FeedCountCache(
+            BlogPostRepository blogPostRepository,
+            @Value("${app.cache.feed-counts.maximum-size:1000}") long maximumSize,
+            @Value("${app.cache.feed-counts.ttl:10m}") Duration ttl
+    ) {
+        this.blogPostRepository = blogPostRepository;
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public long countPublished() {
+        return get(PUBLISHED, blogPostRepository::countByPublishedTrue);
+    }
+
+    public long countArchived() {
+        return get(ARCHIVED, blogPostRepository::countByArchivedTrue);
+    }
+
+    public long countByTag(String tagSlug) {
+        return get(tagKey(tagSlug), () -> blogPostRepository.countPublishedByTagSlug(tagSlug));
+    }
+
+    public long countByCategory(String categorySlug) {
+        return get(categoryKey(categorySlug), () -> blogPostRepository.countPublishedByCategorySlug(categorySlug));
+    }
+
+    public long countByTagAndCategory(String tagSlug, String categorySlug) {
+        return get(tagAndCategoryKey(tagSlug, categorySlug),
+                () -> blogPostRepository.countPublishedByTagAndCategory(tagSlug, categorySlug));
+    }
+
+    // Runs before other post listeners so feed rebuilds see the adjusted totals
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        Set<String> before = feedsOf(event.before());
+        Set<String> after = feedsOf(event.after());
+        for (String feed : before) {
+            if (!after.contains(feed)) {
+                counts.asMap().computeIfPresent(feed, (key, total) -> Math.max(0, total - 1));
+            }
+        }
+        for (String feed : after) {
+            if (!before.contains(feed)) {
+                counts.asMap().computeIfPresent(feed, (key, total) -> total + 1);
+            }
+        }
+    }
+
+    /**
+     * Drops every cached total; each feed is counted again on its next read.
+     * Also runs when another instance changed content, since those changes never reach {@link #onPostChanged}.
+     */
+    @EventListener(ContentRevisionChangedEvent.class)
+    public void invalidateAll() {
+        counts.invalidateAll();
+    }
+
+    private long get(String feed, LongSupplier count) {
+        return counts.get(feed, key -> count.getAsLong());
+    }
+
+    /**
+     * The feeds a post in the given state is listed in; mirrors the WHERE clauses of the listing queries.
+     */
+    private static Set<String> feedsOf(PostSnapshot post) {
+        Set<String> feeds = new HashSet<>();
+        if (post == null) {
+            return feeds;
+        }
+        if (post.archived()) {
+            feeds.add(ARCHIVED);
+        }
+        if (post.published()) {
+            feeds.add(PUBLISHED);
+            if (post.categorySlug() != null) {
+                feeds.add(categoryKey(post.categorySlug()));
+            }
+            for (String tagSlug : post.tagSlugs()) {
+                feeds.add(tagKey(tagSlug));
+                if (post.categorySlug() != null) {
+                    feeds.add(tagAndCategoryKey(tagSlug, post.categorySlug()));
+                }
+            }
+        }
+        return feeds;
+    }
+
+    private static String tagKey(String tagSlug) {
+        return "tag:" + tagSlug;
+    }
+
+    private static String categoryKey(String categorySlug) {
+        return "category:" + categorySlug;
+    }
+
+    private static String tagAndCategoryKey(String tagSlug, String categorySlug) {
+        return "tag:" + tagSlug + "|category:" + categorySlug;
+    }
+}
@@ -3,80 +3,196 @@ package com.example.blog.service;
 import com.example.blog.dto.ImageType;
 import com.example.blog.dto.UploadResult;
 import com.example.blog.exception.StorageException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.imagekit.sdk.ImageKit;
-import io.imagekit.sdk.models.FileCreateRequest;
-import io.imagekit.sdk.models.results.Result;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 /**
  * ImageKit.io implementation of {@link StorageService}.
- * Uses ImageKit SDK for image storage and delivery.
+ * Uploads stream to ImageKit's upload API directly; the SDK is used for URLs and deletion.
  *
  * Folder structure:
  * - /blogs_cover_images - for blog post cover/thumbnail images
  * - /blog_post_images - for inline content images within posts
  */
 @Service
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "imagekit", matchIfMissing = true)
 public class ImageKitStorageService implements StorageService {
 
-    private final ImageKit imageKit;
+    private static final int CONNECT_TIMEOUT_MS = 10_000;
+    private static final int READ_TIMEOUT_MS = 120_000;
+
+    // The file name and content type are written into multipart part headers: only values that
+    // cannot carry quotes or line breaks pass
+    private static final Pattern SAFE_EXTENSION = Pattern.compile("\\.[A-Za-z0-9]{1,10}");
 
-    public ImageKitStorageService(ImageKit imageKit) {
+    private final ImageKit imageKit;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String uploadUrl;
+    private final Semaphore uploadSlots;
+    private final Duration uploadAcquireTimeout;
+
+    public ImageKitStorageService(
+            ImageKit imageKit,
+            @Value("${imagekit.upload-url:https://upload.imagekit.io/api/v1/files/upload}") String uploadUrl,
+            @Value("${imagekit.upload.max-concurrency:4}") int maxConcurrentUploads,
+            @Value("${imagekit.upload.acquire-timeout:30s}") Duration uploadAcquireTimeout
+    ) {
         this.imageKit = imageKit;
+        this.uploadUrl = uploadUrl;
+        this.uploadSlots = new Semaphore(maxConcurrentUploads, true);
+        this.uploadAcquireTimeout = uploadAcquireTimeout;
     }
 
+    /**
+     * Streams the file to ImageKit's upload API as binary multipart.
+     * The file is never held in memory: it is copied from the (disk-spooled) multipart part to the
+     * connection through a fixed-size buffer, and the number of uploads in flight is bounded.
+     */
     @Override
     public UploadResult upload(MultipartFile file, ImageType imageType) throws StorageException {
-        String ext = "";
-        String original = file.getOriginalFilename() == null ? "" : file.getOriginalFilename();
-        int dot = original.lastIndexOf('.');
-        if (dot > -1) {
-            ext = original.substring(dot);
-        }
-
-        String fileName = UUID.randomUUID() + ext;
+        String fileName = UUID.randomUUID() + extension(file.getOriginalFilename());
 
+        acquireUploadSlot();
         try {
-            // Convert file to base64
-            String base64 = Base64.getEncoder().encodeToString(file.getBytes());
+            JsonNode result = streamUpload(file, fileName, imageType.getFolder());
 
-            // Create FileCreateRequest with base64 data and filename
-            FileCreateRequest fileCreateRequest = new FileCreateRequest(base64, fileName);
-
-            // Set folder based on image type
-            fileCreateRequest.setFolder(imageType.getFolder());
-            fileCreateRequest.setUseUniqueFileName(false);
-
-            // Upload using SDK - throws exceptions on failure
-            Result result = imageKit.upload(fileCreateRequest);
-
-            if (result == null || result.getFileId() == null) {
+            if (result == null || !result.hasNonNull("fileId")) {
                 throw new StorageException("Failed to upload file to ImageKit: no fileId returned");
             }
 
             // Return UploadResult with key, fileId, and URL
             return UploadResult.builder()
-                    .key(result.getFilePath())
-                    .fileId(result.getFileId())
-                    .url(result.getUrl())
+                    .key(result.path("filePath").asText(null))
+                    .fileId(result.get("fileId").asText())
+                    .url(result.path("url").asText(null))
                     .build();
         } catch (IOException e) {
-            throw new StorageException("Failed to read file: " + e.getMessage(), e);
-        } catch (StorageException e) {
-            throw e;
-        } catch (Exception e) {
             throw new StorageException("ImageKit error during upload: " + e.getMessage(), e);
+        } finally {
+            uploadSlots.release();
         }
     }
 
+    private void acquireUploadSlot() {
+        try {
+            if (!uploadSlots.tryAcquire(uploadAcquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new StorageException("Too many concurrent uploads, please retry shortly");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageException("Interrupted while waiting to upload", e);
+        }
+    }
+
+    private JsonNode streamUpload(MultipartFile file, String fileName, String folder) throws IOException {
+        String boundary = "----blog-" + UUID.randomUUID();
+        String contentType = partContentType(file.getContentType());
+        byte[] head = (formField(boundary, "fileName", fileName)
+                + formField(boundary, "folder", folder)
+                + formField(boundary, "useUniqueFileName", "false")
+                + "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: " + contentType + "\r\n\r\n").getBytes(StandardCharsets.UTF_8);
+        byte[] tail = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8);
+
+        HttpURLConnection connection = (HttpURLConnection) URI.create(uploadUrl).toURL().openConnection();
+        try {
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            connection.setReadTimeout(READ_TIMEOUT_MS);
+            // Fixed-length streaming: the body is written straight to the socket, not buffered
+            connection.setFixedLengthStreamingMode(head.length + file.getSize() + tail.length);
+            connection.setRequestProperty("Authorization", basicAuth());
+            connection.setRequestProperty("Content-Type", "multipart/form-data; boundary=" + boundary);
+            connection.setRequestProperty("Accept", "application/json");
+
+            try (OutputStream out = connection.getOutputStream(); InputStream in = file.getInputStream()) {
+                out.write(head);
+                in.transferTo(out);
+                out.write(tail);
+            }
+
+            int status = connection.getResponseCode();
+            if (status / 100 != 2) {
+                String error;
+                try (InputStream err = connection.getErrorStream()) {
+                    error = err != null ? new String(err.readAllBytes(), StandardCharsets.UTF_8) : "";
+                }
+                throw new StorageException("ImageKit upload failed with HTTP " + status + ": " + error);
+            }
+            try (InputStream body = connection.getInputStream()) {
+                return objectMapper.readTree(body);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Extension of the client's file name, if it is a plain one (".png", ".jpeg"); otherwise none.
+     */
+    static String extension(String originalName) {
+        if (originalName == null) {
+            return "";
+        }
+        int dot = originalName.lastIndexOf('.');
+        String ext = dot > -1 ? originalName.substring(dot) : "";
+        return SAFE_EXTENSION.matcher(ext).matches() ? ext : "";
+    }
+
+    /**
+     * The client's content type reduced to a well-formed {@code image/*} type, otherwise
+     * {@code application/octet-stream}.
+     */
+    static String partContentType(String contentType) {
+        if (contentType != null) {
+            try {
+                MediaType mediaType = MediaType.parseMediaType(contentType);
+                if ("image".equals(mediaType.getType()) && !mediaType.isWildcardSubtype()) {
+                    // type and subtype are validated tokens; parameters are dropped
+                    return mediaType.getType() + "/" + mediaType.getSubtype();
+                }
+            } catch (InvalidMediaTypeException e) {
+                // fall through
+            }
+        }
+        return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+    }
+
+    private static String formField(String boundary, String name, String value) {
+        return "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+                + value + "\r\n";
+    }
+
+    private String basicAuth() {
+        String credentials = imageKit.getConfig().getPrivateKey() + ":";
+        return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+    }
+
     @Override
     public String presignPutUrl(String key, String contentType, Duration validFor) throws StorageException {
         // ImageKit doesn't use presigned PUT URLs in the same way as S3
@@ -1,5 +1,6 @@
 package com.example.blog.service;
 
+import com.example.blog.dto.BatchUploadResponse;
 import com.example.blog.dto.ImageResponse;
 import com.example.blog.dto.ImageType;
 import com.example.blog.entity.Image;
@@ -41,6 +42,30 @@ public interface ImageService {
         return upload(file, ImageType.CONTENT);
     }
 
+    /**
+     * Uploads several files at once. New content is uploaded concurrently (bounded by
+     * {@code app.images.batch.parallelism}) and recorded with a single batched insert; content that
+     * is already stored is returned as is. One file failing does not fail the others.
+     *
+     * @param files multipart files from request
+     * @param imageType the type of image (COVER or CONTENT), applied to every file
+     * @return one result per file, in request order
+     * @throws InvalidFileException when the batch is empty or has too many files
+     */
+    BatchUploadResponse uploadBatch(List<MultipartFile> files, ImageType imageType) throws InvalidFileException;
+
+    /**
+     * Accepts a file for asynchronous upload: the file is spooled locally and its metadata saved
+     * with status PENDING, and a background worker pushes it to storage.
+     *
+     * @param file multipart file from request
+     * @param imageType the type of image (COVER or CONTENT)
+     * @return the PENDING image; poll {@link #getById(Long)} with its id for the final URL
+     * @throws InvalidFileException when the file is invalid (empty, wrong type)
+     * @throws com.example.blog.exception.UploadQueueFullException when the upload spool is full
+     */
+    ImageResponse submitUpload(MultipartFile file, ImageType imageType) throws InvalidFileException;
+
     /**
      * Generates a presigned GET URL for the given object key.
      *
@@ -1,30 +1,61 @@
 package com.example.blog.service;
 
+import com.example.blog.dto.BatchUploadItemResponse;
+import com.example.blog.dto.BatchUploadResponse;
 import com.example.blog.dto.ImageResponse;
 import com.example.blog.dto.ImageType;
 import com.example.blog.dto.UploadResult;
 import com.example.blog.entity.Image;
+import com.example.blog.entity.ImageVariant;
 import com.example.blog.exception.InvalidFileException;
 import com.example.blog.exception.ResourceNotFoundException;
 import com.example.blog.exception.StorageException;
+import com.example.blog.mapper.BlogPostMapper;
 import com.example.blog.repository.ImageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 
 @Service
+@Slf4j
 public class ImageServiceImpl implements ImageService {
 
     private final StorageService storageService;
     private final ImageRepository imageRepository;
+    private final ImageUploadPipeline uploadPipeline;
+    private final ImageVariantGenerator variantGenerator;
+    private final int batchParallelism;
+    private final int batchMaxFiles;
 
-    public ImageServiceImpl(StorageService storageService, ImageRepository imageRepository) {
+    public ImageServiceImpl(StorageService storageService, ImageRepository imageRepository,
+                            ImageUploadPipeline uploadPipeline, ImageVariantGenerator variantGenerator,
+                            @Value("${app.images.batch.parallelism:4}") int batchParallelism,
+                            @Value("${app.images.batch.max-files:50}") int batchMaxFiles) {
         this.storageService = storageService;
         this.imageRepository = imageRepository;
+        this.uploadPipeline = uploadPipeline;
+        this.variantGenerator = variantGenerator;
+        this.batchParallelism = batchParallelism;
+        this.batchMaxFiles = batchMaxFiles;
     }
 
     @Override
@@ -33,20 +64,217 @@ public class ImageServiceImpl implements ImageService {
             throw new InvalidFileException("File is empty");
         }
 
+        String contentHash = contentHash(file);
+        Optional<Image> existing = imageRepository.findByContentHashAndStatus(contentHash, Image.Status.READY);
+        if (existing.isPresent()) {
+            // Same bytes were uploaded before: no second remote upload, no second row
+            return toResponse(existing.get());
+        }
+
+        StoredUpload stored = store(file, imageType);
+        return toResponse(saveOrReuse(newImage(file, contentHash, stored), stored));
+    }
+
+    @Override
+    public BatchUploadResponse uploadBatch(List<MultipartFile> files, ImageType imageType) throws InvalidFileException {
+        if (files == null || files.isEmpty()) {
+            throw new InvalidFileException("No files in batch");
+        }
+        if (files.size() > batchMaxFiles) {
+            throw new InvalidFileException("At most " + batchMaxFiles + " files per batch");
+        }
+
+        BatchUploadItemResponse[] results = new BatchUploadItemResponse[files.size()];
+
+        // Hash every file; identical files in one batch share a single upload
+        Map<String, List<Integer>> indexesByHash = new LinkedHashMap<>();
+        for (int i = 0; i < files.size(); i++) {
+            MultipartFile file = files.get(i);
+            if (file.isEmpty()) {
+                results[i] = failed(i, file, "File is empty");
+                continue;
+            }
+            try {
+                indexesByHash.computeIfAbsent(contentHash(file), hash -> new ArrayList<>()).add(i);
+            } catch (StorageException e) {
+                results[i] = failed(i, file, e.getMessage());
+            }
+        }
+
+        // Content that is already stored is answered from one lookup
+        if (!indexesByHash.isEmpty()) {
+            for (Image image : imageRepository.findByContentHashInAndStatus(indexesByHash.keySet(), Image.Status.READY)) {
+                for (int i : indexesByHash.remove(image.getContentHash())) {
+                    results[i] = result(i, files.get(i), BatchUploadItemResponse.Status.EXISTING, image);
+                }
+            }
+        }
+
+        // Upload the new content concurrently, at most batchParallelism files at a time
+        Map<String, Future<StoredUpload>> uploads = new LinkedHashMap<>();
+        Semaphore slots = new Semaphore(batchParallelism);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            indexesByHash.forEach((hash, indexes) -> {
+                MultipartFile file = files.get(indexes.get(0));
+                uploads.put(hash, executor.submit(() -> {
+                    slots.acquire();
+                    try {
+                        return store(file, imageType);
+                    } finally {
+                        slots.release();
+                    }
+                }));
+            });
+        }
+
+        List<Image> images = new ArrayList<>();
+        List<String> hashes = new ArrayList<>();
+        Map<Image, StoredUpload> storedByImage = new IdentityHashMap<>();
+        uploads.forEach((hash, upload) -> {
+            List<Integer> indexes = indexesByHash.get(hash);
+            try {
+                StoredUpload stored = upload.get();
+                Image image = newImage(files.get(indexes.get(0)), hash, stored);
+                images.add(image);
+                hashes.add(hash);
+                storedByImage.put(image, stored);
+            } catch (ExecutionException e) {
+                log.warn("Batch upload of {} failed: {}", files.get(indexes.get(0)).getOriginalFilename(), e.getCause().getMessage());
+                indexes.forEach(i -> results[i] = failed(i, files.get(i), e.getCause().getMessage()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new StorageException("Interrupted during batch upload", e);
+            }
+        });
+
+        // saved images line up with the uploads; a saved image may not hold its hash (see saveOrReuse)
+        List<Image> saved = saveAll(images, storedByImage);
+        for (int n = 0; n < saved.size(); n++) {
+            Image image = saved.get(n);
+            StoredUpload stored = storedByImage.get(image);
+            BatchUploadItemResponse.Status status = stored == null
+                    ? BatchUploadItemResponse.Status.EXISTING : BatchUploadItemResponse.Status.CREATED;
+            for (int i : indexesByHash.get(hashes.get(n))) {
+                results[i] = result(i, files.get(i), status, image);
+            }
+        }
+
+        List<BatchUploadItemResponse> ordered = Arrays.asList(results);
+        int failedCount = (int) ordered.stream()
+                .filter(r -> r.getStatus() == BatchUploadItemResponse.Status.FAILED)
+                .count();
+        return BatchUploadResponse.builder()
+                .succeeded(ordered.size() - failedCount)
+                .failed(failedCount)
+                .results(ordered)
+                .build();
+    }
+
+    /**
+     * Inserts all new images in one batch. If a concurrent upload stored some of the same content
+     * first, the batch is rolled back and retried one image at a time, reusing the winners' rows.
+     * The returned images are in the order of {@code images}; for reused content they are the existing
+     * rows (not keys of {@code storedByImage}).
+     */
+    private List<Image> saveAll(List<Image> images, Map<Image, StoredUpload> storedByImage) {
+        if (images.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return imageRepository.saveAll(images);
+        } catch (DataIntegrityViolationException e) {
+            List<Image> saved = new ArrayList<>();
+            for (Image image : images) {
+                // ids handed out by the rolled-back insert are gone
+                image.setId(null);
+                saved.add(saveOrReuse(image, storedByImage.get(image)));
+            }
+            return saved;
+        }
+    }
+
+    /**
+     * Saves a new image; if another upload of the same content saved first, keeps that row and
+     * drops this upload's stored copy. If the other upload is an async job that is not READY yet,
+     * this image is kept instead, without claiming the content hash.
+     */
+    private Image saveOrReuse(Image image, StoredUpload stored) {
+        try {
+            return imageRepository.save(image);
+        } catch (DataIntegrityViolationException e) {
+            Image winner = imageRepository.findByContentHash(image.getContentHash()).orElseThrow(() -> e);
+            if (winner.getStatus() != Image.Status.READY) {
+                image.setId(null);
+                image.setContentHash(null);
+                return imageRepository.save(image);
+            }
+            if (!Objects.equals(winner.getKey(), stored.result().getKey())) {
+                deleteQuietly(stored.result());
+                variantGenerator.deleteVariants(stored.variants());
+            }
+            return winner;
+        }
+    }
+
+    private StoredUpload store(MultipartFile file, ImageType imageType) {
         // Upload to storage with the specified image type (determines folder)
         UploadResult uploadResult = storageService.upload(file, imageType);
+        return new StoredUpload(uploadResult, variantGenerator.createVariants(file, imageType));
+    }
 
-        // Save metadata to database
+    private static Image newImage(MultipartFile file, String contentHash, StoredUpload stored) {
         Image image = new Image();
-        image.setKey(uploadResult.getKey());
-        image.setFileId(uploadResult.getFileId());
+        image.setKey(stored.result().getKey());
+        image.setFileId(stored.result().getFileId());
         image.setOriginalName(file.getOriginalFilename());
         image.setContentType(file.getContentType());
         image.setSize(file.getSize());
-        image.setUrl(uploadResult.getUrl());
-        Image saved = imageRepository.save(image);
+        image.setUrl(stored.result().getUrl());
+        image.setContentHash(contentHash);
+        image.setVariants(new ArrayList<>(stored.variants()));
+        return image;
+    }
+
+    private BatchUploadItemResponse result(int index, MultipartFile file, BatchUploadItemResponse.Status status, Image image) {
+        return BatchUploadItemResponse.builder()
+                .index(index)
+                .originalName(file.getOriginalFilename())
+                .status(status)
+                .image(toResponse(image))
+                .build();
+    }
+
+    private static BatchUploadItemResponse failed(int index, MultipartFile file, String error) {
+        return BatchUploadItemResponse.builder()
+                .index(index)
+                .originalName(file.getOriginalFilename())
+                .status(BatchUploadItemResponse.Status.FAILED)
+                .error(error)
+                .build();
+    }
+
+    private static String contentHash(MultipartFile file) {
+        try {
+            return ContentHashes.sha256(file);
+        } catch (IOException e) {
+            throw new StorageException("Failed to read upload: " + e.getMessage(), e);
+        }
+    }
+
+    private void deleteQuietly(UploadResult uploadResult) {
+        try {
+            storageService.delete(uploadResult.getKey(), uploadResult.getFileId());
+        } catch (RuntimeException e) {
+            log.warn("Could not delete duplicate upload {}: {}", uploadResult.getKey(), e.getMessage());
+        }
+    }
 
-        return toResponse(saved);
+    @Override
+    public ImageResponse submitUpload(MultipartFile file, ImageType imageType) throws InvalidFileException {
+        if (file.isEmpty()) {
+            throw new InvalidFileException("File is empty");
+        }
+        return toResponse(uploadPipeline.submit(file, imageType));
     }
 
     @Override
@@ -64,10 +292,14 @@ public class ImageServiceImpl implements ImageService {
 
     @Override
     public void deleteByObjectKey(String objectKey) throws ResourceNotFoundException, StorageException {
-        Image image = imageRepository.findByKey(objectKey)
+        Image image = imageRepository.findFirstByKeyOrderByIdAsc(objectKey)
                 .orElseThrow(() -> new ResourceNotFoundException("Image not found with key: " + objectKey));
 
-        storageService.delete(objectKey, image.getFileId());
+        // Keep the stored file while other images still point at the same (content-addressed) key
+        if (imageRepository.countByKey(objectKey) == 1) {
+            storageService.delete(objectKey, image.getFileId());
+            variantGenerator.deleteVariants(image.getVariants());
+        }
         imageRepository.delete(image);
     }
 
@@ -87,7 +319,7 @@ public class ImageServiceImpl implements ImageService {
 
     @Override
     public Optional<ImageResponse> findByObjectKey(String objectKey) {
-        return imageRepository.findByKey(objectKey)
+        return imageRepository.findFirstByKeyOrderByIdAsc(objectKey)
                 .map(this::toResponse);
     }
 
@@ -99,6 +331,9 @@ public class ImageServiceImpl implements ImageService {
                 .collect(Collectors.toList());
     }
 
+    private record StoredUpload(UploadResult result, List<ImageVariant> variants) {
+    }
+
     private ImageResponse toResponse(Image image) {
         return ImageResponse.builder()
                 .id(image.getId())
@@ -106,6 +341,9 @@ public class ImageServiceImpl implements ImageService {
                 .originalName(image.getOriginalName())
                 .url(image.getUrl())
                 .uploadedAt(image.getUploadedAt())
+                .status(image.getStatus().name())
+                .failureReason(image.getFailureReason())
+                .variants(BlogPostMapper.toVariantResponses(image.getVariants()))
                 .postId(image.getPost() != null ? image.getPost().getId() : null)
                 .build();
     }
@@ -0,0 +1,256 @@
+package com.example.blog.service;
+
+import com.example.blog.dto.ImageType;
+import com.example.blog.dto.UploadResult;
+import com.example.blog.entity.Image;
+import com.example.blog.entity.ImageVariant;
+import com.example.blog.exception.StorageException;
+import com.example.blog.exception.UploadQueueFullException;
+import com.example.blog.repository.ImageRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous image uploads: the request only spools the file to local disk and writes a
+ * PENDING {@link Image} row; a fixed pool of workers pushes spooled files to the
+ * {@link StorageService} and flips the row to READY (or FAILED).
+ *
+ * The spool is bounded by the worker queue: when it is full, new uploads are refused with
+ * {@link UploadQueueFullException} rather than piling up on disk.
+ *
+ * A job whose instance is killed mid-upload leaves its row PENDING, holding the content hash.
+ * A periodic sweep fails PENDING rows older than {@code app.images.async.pending-timeout} and
+ * releases their hashes, so clients stop polling and the same file can be uploaded again.
+ */
+@Component
+@Slf4j
+public class ImageUploadPipeline {
+
+    private static final long RETRY_AFTER_SECONDS = 5;
+    private static final int MAX_FAILURE_REASON = 500;
+
+    private final StorageService storageService;
+    private final ImageRepository imageRepository;
+    private final ImageVariantGenerator variantGenerator;
+    private final Path spoolDir;
+    private final Duration pendingTimeout;
+    private final ThreadPoolExecutor workers;
+
+    public ImageUploadPipeline(
+            StorageService storageService,
+            ImageRepository imageRepository,
+            ImageVariantGenerator variantGenerator,
+            @Value("${app.images.async.workers:4}") int workerCount,
+            @Value("${app.images.async.queue-capacity:100}") int queueCapacity,
+            @Value("${app.images.async.spool-dir:${java.io.tmpdir}/blog-upload-spool}") Path spoolDir,
+            @Value("${app.images.async.pending-timeout:15m}") Duration pendingTimeout
+    ) {
+        this.storageService = storageService;
+        this.imageRepository = imageRepository;
+        this.variantGenerator = variantGenerator;
+        this.spoolDir = spoolDir;
+        this.pendingTimeout = pendingTimeout;
+        try {
+            Files.createDirectories(spoolDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create upload spool directory " + spoolDir, e);
+        }
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("image-upload-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Spools the file, records it as PENDING and queues it for upload.
+     *
+     * @return the PENDING image; its id is the job id
+     * @throws UploadQueueFullException when the spool is full
+     */
+    public Image submit(MultipartFile file, ImageType imageType) {
+        if (workers.getQueue().remainingCapacity() == 0) {
+            // cheap early refusal before copying the file to disk
+            throw queueFull();
+        }
+
+        SpooledMultipartFile spooled;
+        try {
+            spooled = SpooledMultipartFile.spool(file, spoolDir);
+        } catch (IOException e) {
+            throw new StorageException("Failed to spool upload: " + e.getMessage(), e);
+        }
+
+        Optional<Image> existing = imageRepository.findByContentHash(spooled.contentHash());
+        if (existing.isPresent() && !isStalePending(existing.get())) {
+            // Same bytes already stored or on their way: hand back that image (or job)
+            spooled.delete();
+            return existing.get();
+        }
+        // a PENDING row past the timeout is a job that died with its instance; fail it and retry
+        existing.ifPresent(stale -> markFailed(stale.getId(), staleReason()));
+
+        Image image = new Image();
+        image.setOriginalName(file.getOriginalFilename());
+        image.setContentType(file.getContentType());
+        image.setSize(file.getSize());
+        image.setContentHash(spooled.contentHash());
+        image.setStatus(Image.Status.PENDING);
+        Image saved;
+        try {
+            saved = imageRepository.save(image);
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent upload of the same content got its row in first
+            spooled.delete();
+            return imageRepository.findByContentHash(spooled.contentHash()).orElseThrow(() -> e);
+        } catch (RuntimeException e) {
+            spooled.delete();
+            throw e;
+        }
+
+        try {
+            workers.execute(new UploadJob(saved.getId(), spooled, imageType));
+        } catch (RejectedExecutionException e) {
+            spooled.delete();
+            imageRepository.delete(saved);
+            throw queueFull();
+        }
+        return saved;
+    }
+
+    private void process(UploadJob job) {
+        try {
+            UploadResult result = storageService.upload(job.file(), job.imageType());
+            List<ImageVariant> variants = variantGenerator.createVariants(job.file(), job.imageType());
+            Image image = imageRepository.findById(job.imageId()).orElse(null);
+            if (image == null) {
+                // the pending row was deleted while uploading; don't leave an orphan in storage
+                storageService.delete(result.getKey(), result.getFileId());
+                variantGenerator.deleteVariants(variants);
+                return;
+            }
+            image.setKey(result.getKey());
+            image.setFileId(result.getFileId());
+            image.setUrl(result.getUrl());
+            image.setVariants(new ArrayList<>(variants));
+            image.setStatus(Image.Status.READY);
+            imageRepository.save(image);
+        } catch (RuntimeException e) {
+            log.warn("Async upload of image {} failed: {}", job.imageId(), e.getMessage());
+            markFailed(job.imageId(), e.getMessage());
+        } finally {
+            job.file().delete();
+        }
+    }
+
+    private void markFailed(Long imageId, String reason) {
+        try {
+            imageRepository.findById(imageId).ifPresent(image -> {
+                image.setStatus(Image.Status.FAILED);
+                // release the hash so the same file can be uploaded again
+                image.setContentHash(null);
+                image.setFailureReason(reason != null && reason.length() > MAX_FAILURE_REASON
+                        ? reason.substring(0, MAX_FAILURE_REASON) : reason);
+                imageRepository.save(image);
+            });
+        } catch (RuntimeException e) {
+            log.error("Could not mark image {} as failed", imageId, e);
+        }
+    }
+
+    /**
+     * Fails uploads that stayed PENDING past the timeout. Runs on every instance; the update is a
+     * single statement, so concurrent sweeps are harmless.
+     */
+    @Scheduled(
+            initialDelayString = "${app.images.async.sweep-interval-ms:60000}",
+            fixedDelayString = "${app.images.async.sweep-interval-ms:60000}")
+    public void failStalePendingUploads() {
+        try {
+            int failed = imageRepository.failPendingUploadedBefore(Instant.now().minus(pendingTimeout), staleReason());
+            if (failed > 0) {
+                log.warn("Failed {} image uploads stuck in PENDING", failed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not sweep stale image uploads: {}", e.getMessage());
+        }
+    }
+
+    private boolean isStalePending(Image image) {
+        return image.getStatus() == Image.Status.PENDING
+                && image.getUploadedAt() != null
+                && image.getUploadedAt().isBefore(Instant.now().minus(pendingTimeout));
+    }
+
+    private String staleReason() {
+        return "Upload did not complete within " + pendingTimeout;
+    }
+
+    private UploadQueueFullException queueFull() {
+        return new UploadQueueFullException("Upload queue is full, please retry shortly", RETRY_AFTER_SECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Jobs that never started would stay PENDING forever; fail them so clients stop polling
+        List<Runnable> queued = new ArrayList<>();
+        workers.getQueue().drainTo(queued);
+        workers.shutdown();
+        for (Runnable runnable : queued) {
+            if (runnable instanceof UploadJob job) {
+                job.file().delete();
+                markFailed(job.imageId(), "Server shut down before the upload started");
+            }
+        }
+        // let in-flight uploads finish
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private final class UploadJob implements Runnable {
+
+        private final Long imageId;
+        private final SpooledMultipartFile file;
+        private final ImageType imageType;
+
+        private UploadJob(Long imageId, SpooledMultipartFile file, ImageType imageType) {
+            this.imageId = imageId;
+            this.file = file;
+            this.imageType = imageType;
+        }
+
+        Long imageId() {
+            return imageId;
+        }
+
+        SpooledMultipartFile file() {
+            return file;
+        }
+
+        ImageType imageType() {
+            return imageType;
+        }
+
+        @Override
+        public void run() {
+            process(this);
+        }
+    }
+}
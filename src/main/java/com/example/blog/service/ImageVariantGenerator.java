@@ -0,0 +1,240 @@
+package com.example.blog.service;
+
+import com.example.blog.dto.ImageType;
+import com.example.blog.dto.UploadResult;
+import com.example.blog.entity.ImageVariant;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Produces the downscaled {@link ImageVariant}s of an upload with javax.imageio.
+ *
+ * Decoding, scaling and encoding run on a small fixed pool with a bounded queue; when the queue
+ * is full the uploading thread does the work itself, which throttles uploads instead of queueing
+ * decoded bitmaps. Sources larger than {@code app.images.variants.max-source-pixels} and formats
+ * imageio cannot decode get no variants; readers then fall back to the original.
+ */
+@Component
+@Slf4j
+public class ImageVariantGenerator {
+
+    private static final float JPEG_QUALITY = 0.82f;
+
+    private final StorageService storageService;
+    private final ThreadPoolExecutor workers;
+    private final long maxSourcePixels;
+
+    public ImageVariantGenerator(
+            StorageService storageService,
+            @Value("${app.images.variants.workers:2}") int workerCount,
+            @Value("${app.images.variants.queue-capacity:16}") int queueCapacity,
+            @Value("${app.images.variants.max-source-pixels:50000000}") long maxSourcePixels
+    ) {
+        this.storageService = storageService;
+        this.maxSourcePixels = maxSourcePixels;
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("image-variants-", 0).factory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Renders and stores the variants of {@code source}. Never fails the upload: on any error
+     * the variants stored so far are removed and an empty list is returned.
+     */
+    public List<ImageVariant> createVariants(MultipartFile source, ImageType imageType) {
+        List<RenderedVariant> rendered;
+        try {
+            rendered = CompletableFuture.supplyAsync(() -> render(source), workers).join();
+        } catch (CompletionException e) {
+            log.warn("Could not render variants of {}: {}", source.getOriginalFilename(), e.getCause().getMessage());
+            return List.of();
+        }
+
+        List<ImageVariant> variants = new ArrayList<>();
+        try {
+            for (RenderedVariant variant : rendered) {
+                UploadResult result = storageService.upload(variant.file(), imageType);
+                variants.add(new ImageVariant(variant.size(), variant.width(), variant.height(),
+                        variant.file().getSize(), result.getKey(), result.getFileId(), result.getUrl()));
+            }
+            return variants;
+        } catch (RuntimeException e) {
+            log.warn("Could not store variants of {}: {}", source.getOriginalFilename(), e.getMessage());
+            deleteVariants(variants);
+            return List.of();
+        } finally {
+            rendered.forEach(variant -> variant.file().delete());
+        }
+    }
+
+    /**
+     * Removes stored variants; failures are logged, not thrown.
+     */
+    public void deleteVariants(List<ImageVariant> variants) {
+        for (ImageVariant variant : variants) {
+            try {
+                storageService.delete(variant.getKey(), variant.getFileId());
+            } catch (RuntimeException e) {
+                log.warn("Could not delete image variant {}: {}", variant.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    private List<RenderedVariant> render(MultipartFile source) {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.getInputStream())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                // not a format imageio can decode (e.g. SVG, WebP)
+                return List.of();
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxSourcePixels) {
+                    log.info("Skipping variants of {}: {}x{} exceeds the decode limit", source.getOriginalFilename(), width, height);
+                    return List.of();
+                }
+                List<ImageVariant.Size> sizes = Arrays.stream(ImageVariant.Size.values())
+                        .filter(size -> size.getMaxWidth() < width)
+                        .toList();
+                if (sizes.isEmpty()) {
+                    return List.of();
+                }
+
+                // Decode at reduced resolution when the largest variant is much smaller than the source,
+                // keeping at least 2x the target width so the final downscale stays sharp
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, width / (sizes.get(sizes.size() - 1).getMaxWidth() * 2));
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                BufferedImage decoded = reader.read(0, param);
+
+                List<RenderedVariant> rendered = new ArrayList<>();
+                try {
+                    for (ImageVariant.Size size : sizes) {
+                        rendered.add(write(scale(decoded, size.getMaxWidth()), size, source.getOriginalFilename()));
+                    }
+                } catch (IOException | RuntimeException e) {
+                    rendered.forEach(variant -> variant.file().delete());
+                    throw e;
+                }
+                return rendered;
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Downscales in halving steps, then once to the exact width: a single bilinear step from a
+     * much larger image drops most source pixels and aliases badly.
+     */
+    private static BufferedImage scale(BufferedImage source, int targetWidth) {
+        boolean alpha = source.getColorModel().hasAlpha();
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        int targetHeight = Math.max(1, Math.round((float) source.getHeight() * targetWidth / source.getWidth()));
+
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = width == targetWidth ? targetHeight : Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, type);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (width > targetWidth);
+        return current;
+    }
+
+    /**
+     * Encodes to a temp file: JPEG for opaque images, PNG when there is transparency to keep.
+     */
+    private static RenderedVariant write(BufferedImage image, ImageVariant.Size size, String originalName) throws IOException {
+        boolean png = image.getColorModel().hasAlpha();
+        String extension = png ? ".png" : ".jpg";
+        Path path = Files.createTempFile("variant-", extension);
+        try {
+            if (png) {
+                ImageIO.write(image, "png", path.toFile());
+            } else {
+                ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+                try (ImageOutputStream out = ImageIO.createImageOutputStream(path.toFile())) {
+                    ImageWriteParam param = writer.getDefaultWriteParam();
+                    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    param.setCompressionQuality(JPEG_QUALITY);
+                    writer.setOutput(out);
+                    writer.write(null, new IIOImage(image, null, null), param);
+                } finally {
+                    writer.dispose();
+                }
+            }
+            String name = baseName(originalName) + "-" + size.name().toLowerCase(Locale.ROOT) + extension;
+            SpooledMultipartFile file = new SpooledMultipartFile(path, name, png ? "image/png" : "image/jpeg",
+                    Files.size(path), null);
+            return new RenderedVariant(size, image.getWidth(), image.getHeight(), file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+    }
+
+    private static String baseName(String originalName) {
+        if (originalName == null || originalName.isBlank()) {
+            return "image";
+        }
+        int dot = originalName.lastIndexOf('.');
+        return dot > 0 ? originalName.substring(0, dot) : originalName;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private record RenderedVariant(ImageVariant.Size size, int width, int height, SpooledMultipartFile file) {
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.blog.service;
+
+import com.example.blog.dto.ImageType;
+import com.example.blog.dto.UploadResult;
+import com.example.blog.exception.InvalidFileException;
+import com.example.blog.exception.StorageException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Filesystem implementation of {@link StorageService}, enabled with {@code app.storage.backend=local}.
+ *
+ * Files are content addressed: the key is {@code <folder>/<h0h1>/<h2h3>/<sha256>.<ext>}, so identical
+ * uploads share one file and a key never changes content. Only the raster formats of {@link ImageFormat}
+ * are accepted, and the extension comes from the sniffed content rather than the client's filename,
+ * because files are served from the API origin. Files are served by
+ * {@link com.example.blog.controller.LocalImageFileController}; presigned GET URLs carry an
+ * HMAC-SHA256 signature over the key and expiry.
+ */
+@Service
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "local")
+public class LocalDiskStorageService implements StorageService {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final long TRANSFER_CHUNK = 8L * 1024 * 1024;
+
+    private final Path root;
+    private final Path tmpDir;
+    private final String baseUrl;
+    private final SecretKeySpec signingKey;
+    private final boolean publicRead;
+
+    public LocalDiskStorageService(
+            @Value("${app.storage.local.root-dir:./data/images}") Path root,
+            @Value("${app.storage.local.base-url:/api/images/files}") String baseUrl,
+            @Value("${app.storage.local.signing-secret:${jwt.secret}}") String signingSecret,
+            @Value("${app.storage.local.public-read:true}") boolean publicRead
+    ) {
+        this.root = root.toAbsolutePath().normalize();
+        this.tmpDir = this.root.resolve(".tmp");
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.signingKey = new SecretKeySpec(signingSecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        this.publicRead = publicRead;
+        try {
+            Files.createDirectories(tmpDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create storage directory " + this.root, e);
+        }
+    }
+
+    /**
+     * Streams the part to a temp file through a file channel while hashing it, then moves it into
+     * place under its content hash.
+     *
+     * @throws InvalidFileException when the content is not a JPEG, PNG, GIF or WebP image
+     */
+    @Override
+    public UploadResult upload(MultipartFile file, ImageType imageType) throws StorageException {
+        MessageDigest sha256 = ContentHashes.newDigest();
+        Path tmp = null;
+        try {
+            tmp = Files.createTempFile(tmpDir, "upload-", ".part");
+            ImageFormat format;
+            try (InputStream in = new DigestInputStream(file.getInputStream(), sha256);
+                 FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                byte[] header = in.readNBytes(ImageFormat.HEADER_LENGTH);
+                format = ImageFormat.sniff(header).orElseThrow(() ->
+                        new InvalidFileException("Only JPEG, PNG, GIF and WebP images can be stored"));
+                out.write(ByteBuffer.wrap(header));
+
+                ReadableByteChannel channel = Channels.newChannel(in);
+                long position = header.length;
+                long transferred;
+                while ((transferred = out.transferFrom(channel, position, TRANSFER_CHUNK)) > 0) {
+                    position += transferred;
+                }
+            }
+
+            String hash = ContentHashes.hex(sha256);
+            // folders come as "/name"; keys are relative to the storage root
+            String folder = imageType.getFolder().replaceFirst("^/+", "");
+            String key = folder + "/" + hash.substring(0, 2) + "/" + hash.substring(2, 4)
+                    + "/" + hash + "." + format.getExtension();
+            Path target = resolve(key);
+            Files.createDirectories(target.getParent());
+            if (Files.exists(target)) {
+                // same content already stored
+                Files.delete(tmp);
+            } else {
+                try {
+                    Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    Files.delete(tmp);
+                }
+            }
+
+            return UploadResult.builder()
+                    .key(key)
+                    .fileId(hash)
+                    .url(getObjectUrl(key))
+                    .build();
+        } catch (IOException e) {
+            deleteQuietly(tmp);
+            throw new StorageException("Failed to store file: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            deleteQuietly(tmp);
+            throw e;
+        }
+    }
+
+    @Override
+    public String presignPutUrl(String key, String contentType, Duration validFor) throws StorageException {
+        // Uploads go through the API so they can be sniffed and hashed into place
+        throw new StorageException("Local storage does not accept direct uploads");
+    }
+
+    @Override
+    public String presignGetUrl(String key, Duration validFor) throws StorageException {
+        long expires = Instant.now().plus(validFor).getEpochSecond();
+        return getObjectUrl(key) + "?expires=" + expires + "&signature=" + sign(key, expires);
+    }
+
+    @Override
+    public String getObjectUrl(String key) {
+        return baseUrl + "/" + key;
+    }
+
+    @Override
+    public void delete(String key, String fileId) throws StorageException {
+        try {
+            Files.deleteIfExists(resolve(key));
+        } catch (IOException e) {
+            throw new StorageException("Failed to delete file: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) throws StorageException {
+        return Files.isRegularFile(resolve(key));
+    }
+
+    /**
+     * The file for a key, refusing keys that would escape the storage root.
+     */
+    public Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.startsWith(tmpDir) || path.equals(root)) {
+            throw new IllegalArgumentException("Invalid object key: " + key);
+        }
+        return path;
+    }
+
+    /**
+     * Whether files may be read without a signed URL.
+     */
+    public boolean isPublicRead() {
+        return publicRead;
+    }
+
+    /**
+     * Checks a presigned URL's signature and expiry (epoch seconds).
+     */
+    public boolean isSignatureValid(String key, long expires, String signature) {
+        if (expires < Instant.now().getEpochSecond()) {
+            return false;
+        }
+        return MessageDigest.isEqual(
+                sign(key, expires).getBytes(StandardCharsets.US_ASCII),
+                signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private String sign(String key, long expires) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            byte[] digest = mac.doFinal((key + "\n" + expires).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new StorageException("Failed to sign URL", e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // best effort
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.blog.service;
+
+import com.example.blog.dto.PostResponse;
+import com.example.blog.entity.BlogPost;
+import com.example.blog.event.PostChangedEvent;
+import com.example.blog.exception.ResourceNotFoundException;
+import com.example.blog.mapper.BlogPostMapper;
+import com.example.blog.repository.BlogPostRepository;
+import com.example.blog.repository.PostVersionView;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-rendered JSON of published posts, keyed by slug: the serialised {@link PostResponse}
+ * bytes plus a gzip variant, so serving a post is a map lookup and a socket write.
+ *
+ * Entries are rendered on first read and re-rendered from the database right after a
+ * committed change to the post. Unpublished posts are never rendered.
+ *
+ * Other instances change posts too. Each entry is stamped with the shared {@link ContentVersion}
+ * revision it was checked at, and is served as is while that revision is current; once the revision
+ * moves, the next read checks the post's id, published flag and updatedAt with one indexed row read
+ * before serving it again. The revision itself is re-read at most every
+ * {@code app.http.cache.content-version-check-interval}, so a change made on another instance is
+ * served for at most that long. Entries also expire after {@code app.render-cache.ttl}, which
+ * defaults to the post detail cache TTL. Slugs with no post are remembered for
+ * {@code app.render-cache.missing-ttl} (or until the revision moves), so repeated requests for them
+ * skip the database.
+ */
+@Component
+@Slf4j
+public class PostRenderCache {
+
+    private final BlogPostRepository blogPostRepository;
+    private final ContentVersion contentVersion;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, CachedPost> rendered;
+
+    public PostRenderCache(
+            BlogPostRepository blogPostRepository,
+            ContentVersion contentVersion,
+            ObjectMapper objectMapper,
+            @Value("${app.render-cache.maximum-size:500}") long maximumSize,
+            @Value("${app.render-cache.ttl:${app.cache.posts.ttl:10m}}") Duration ttl,
+            @Value("${app.render-cache.missing-ttl:30s}") Duration missingTtl
+    ) {
+        this.blogPostRepository = blogPostRepository;
+        this.contentVersion = contentVersion;
+        this.objectMapper = objectMapper;
+        this.rendered = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new EntryExpiry(ttl, missingTtl))
+                .build();
+    }
+
+    /**
+     * The rendered post with the given slug, or empty if the post exists but is not published.
+     *
+     * @throws ResourceNotFoundException if no post has that slug
+     */
+    public Optional<RenderedPost> get(String slug) {
+        // read before the post row, so a change committed meanwhile moves the revision past the stamp
+        long revision = contentVersion.revision();
+        CachedPost cached = rendered.getIfPresent(slug);
+        if (cached != null && cached.revision() == revision) {
+            if (cached.post() == null) {
+                throw notFound(slug);
+            }
+            return Optional.of(cached.post());
+        }
+
+        Optional<PostVersionView> current = blogPostRepository.findVersionBySlug(slug);
+        if (current.isEmpty()) {
+            rendered.put(slug, CachedPost.missing(revision));
+            throw notFound(slug);
+        }
+        PostVersionView version = current.get();
+        if (!Boolean.TRUE.equals(version.getPublished())) {
+            rendered.invalidate(slug);
+            return Optional.empty();
+        }
+        if (cached != null && cached.post() != null && isCurrent(cached.post(), version)) {
+            // unchanged by the newer revision: serve it without another check until the next one
+            rendered.asMap().replace(slug, cached, new CachedPost(cached.post(), revision));
+            return Optional.of(cached.post());
+        }
+
+        Optional<RenderedPost> fresh = blogPostRepository.findWithCategoryAndTagsById(version.getId())
+                .filter(BlogPost::isPublished)
+                .map(this::render);
+        fresh.ifPresentOrElse(post -> rendered.put(slug, new CachedPost(post, revision)), () -> rendered.invalidate(slug));
+        return fresh;
+    }
+
+    /**
+     * Drops every rendered post; each is rendered again on its next read.
+     */
+    public void invalidateAll() {
+        rendered.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (event.before() != null) {
+            rendered.invalidate(event.before().slug());
+        }
+        if (event.after() != null) {
+            // also drops a remembered miss for a newly created slug
+            rendered.invalidate(event.after().slug());
+        }
+        if (event.after() != null && event.after().published()) {
+            // Re-render from the database: the post caches are only evicted after this listener runs.
+            // The stamp may predate this change's revision; the first read then re-checks the row once.
+            long revision = contentVersion.revision();
+            blogPostRepository.findWithCategoryAndTagsById(event.postId())
+                    .filter(BlogPost::isPublished)
+                    .ifPresent(post -> rendered.put(post.getSlug(), new CachedPost(render(post), revision)));
+        }
+    }
+
+    /**
+     * Whether a rendering matches the post's current row.
+     */
+    private static boolean isCurrent(RenderedPost post, PostVersionView version) {
+        return post.id().equals(version.getId()) && Objects.equals(post.updatedAt(), version.getUpdatedAt());
+    }
+
+    private static ResourceNotFoundException notFound(String slug) {
+        return new ResourceNotFoundException("Post not found with slug: " + slug);
+    }
+
+    private RenderedPost render(BlogPost post) {
+        PostResponse response = BlogPostMapper.toResponse(post, null);
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(response);
+            return new RenderedPost(response.getId(), response.getUpdatedAt(), json, gzip(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to render post " + post.getId(), e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 3);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * A rendered post: identity and version for conditional GETs, and the body in each encoding.
+     */
+    public record RenderedPost(Long id, Instant updatedAt, byte[] json, byte[] gzip) {
+    }
+
+    /**
+     * A cache entry: a rendered post, or no post for a slug that has none, as of a content revision.
+     */
+    private record CachedPost(RenderedPost post, long revision) {
+
+        static CachedPost missing(long revision) {
+            return new CachedPost(null, revision);
+        }
+    }
+
+    /**
+     * Rendered posts live for the full TTL, remembered misses only briefly.
+     */
+    private record EntryExpiry(Duration ttl, Duration missingTtl) implements Expiry<String, CachedPost> {
+
+        @Override
+        public long expireAfterCreate(String slug, CachedPost entry, long currentTime) {
+            return (entry.post() == null ? missingTtl : ttl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String slug, CachedPost entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(slug, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String slug, CachedPost entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
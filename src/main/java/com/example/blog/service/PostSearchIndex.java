@@ -0,0 +1,327 @@
+package com.example.blog.service;
+
+import com.example.blog.dto.PostSummaryResponse;
+import com.example.blog.entity.BlogPost;
+import com.example.blog.entity.Tag;
+import com.example.blog.event.PostChangedEvent;
+import com.example.blog.mapper.BlogPostMapper;
+import com.example.blog.repository.BlogPostRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over published posts, used when {@code app.search.mode=INDEX}.
+ *
+ * Indexes title, excerpt, tags, category and HTML-stripped content, and ranks matches with BM25.
+ * Every query term must match; the last term also matches as a prefix so partially typed words
+ * find results. The index is built once at startup and then updated per post after each committed
+ * change, so searches never touch the database.
+ *
+ * Changes committed by other instances raise no event here. They are picked up by a periodic
+ * resync that re-reads posts whose {@code updated_at} is past the newest one indexed, and by a
+ * less frequent full rebuild, which also drops posts deleted elsewhere.
+ */
+@Component
+@Slf4j
+public class PostSearchIndex {
+
+    // BM25 parameters (standard defaults)
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Field boosts, applied as repeated term occurrences
+    private static final int TITLE_BOOST = 3;
+    private static final int TAG_BOOST = 2;
+
+    // Re-read this far behind the high-water mark: a transaction that stamped updated_at just before
+    // the last resync may only have committed after it
+    private static final Duration RESYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final BlogPostRepository blogPostRepository;
+    private final boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, IndexedPost> documents = new HashMap<>();
+    private long totalLength;
+    private Instant highWaterMark = Instant.EPOCH;
+    private volatile boolean ready;
+
+    public PostSearchIndex(
+            BlogPostRepository blogPostRepository,
+            @Value("${app.search.mode:LIKE}") SearchMode searchMode
+    ) {
+        this.blogPostRepository = blogPostRepository;
+        this.enabled = searchMode == SearchMode.INDEX;
+    }
+
+    /**
+     * Whether the index has been built and can serve searches.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        rebuild(blogPostRepository.findAllWithCategoryAndTags());
+        log.info("Built post search index: documents={}, terms={}, took={}ms",
+                documents.size(), postings.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Re-indexes posts changed since the last sync, including changes made by other instances.
+     */
+    @Scheduled(
+            initialDelayString = "${app.search.index.resync-interval-ms:60000}",
+            fixedDelayString = "${app.search.index.resync-interval-ms:60000}")
+    public void resync() {
+        if (!enabled || !ready) {
+            return;
+        }
+        Instant since;
+        lock.readLock().lock();
+        try {
+            since = highWaterMark.minus(RESYNC_OVERLAP);
+        } finally {
+            lock.readLock().unlock();
+        }
+        try {
+            List<BlogPost> changed = blogPostRepository.findWithCategoryAndTagsUpdatedAfter(since);
+            changed.forEach(this::upsert);
+            log.debug("Resynced post search index: changed={}", changed.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not resync post search index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuilds the whole index, which also drops posts deleted on other instances.
+     */
+    @Scheduled(
+            initialDelayString = "${app.search.index.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${app.search.index.rebuild-interval-ms:3600000}")
+    public void rebuildFromDatabase() {
+        if (!enabled || !ready) {
+            return;
+        }
+        try {
+            rebuild(blogPostRepository.findAllWithCategoryAndTags());
+        } catch (RuntimeException e) {
+            log.warn("Could not rebuild post search index: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (!enabled || !ready) {
+            return;
+        }
+        blogPostRepository.findWithCategoryAndTagsById(event.postId())
+                .ifPresentOrElse(this::upsert, () -> remove(event.postId()));
+    }
+
+    /**
+     * Replace the whole index with the given posts (unpublished posts are skipped).
+     */
+    public void rebuild(Collection<BlogPost> posts) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            totalLength = 0;
+            highWaterMark = Instant.EPOCH;
+            posts.forEach(post -> {
+                addDocument(post);
+                advanceHighWaterMark(post);
+            });
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add or re-index a post; removes it instead if it is no longer published.
+     */
+    public void upsert(BlogPost post) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(post.getId());
+            addDocument(post);
+            advanceHighWaterMark(post);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long postId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Search published posts, best match first (ties broken by newest first).
+     */
+    public Page<PostSummaryResponse> search(String query, Pageable pageable) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (int i = 0; i < terms.size(); i++) {
+                boolean prefix = i == terms.size() - 1;
+                Map<Long, Double> termScores = scoreTerm(terms.get(i), prefix);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    // Every term must match: keep the intersection and add up the scores
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+
+            List<IndexedPost> ranked = new ArrayList<>(scores.size());
+            Map<Long, Double> finalScores = scores;
+            finalScores.keySet().forEach(id -> ranked.add(documents.get(id)));
+            ranked.sort(Comparator
+                    .comparingDouble((IndexedPost doc) -> finalScores.get(doc.summary().getId())).reversed()
+                    .thenComparing(IndexedPost::createdAt, Comparator.nullsLast(Comparator.reverseOrder())));
+
+            int from = (int) Math.min(pageable.getOffset(), ranked.size());
+            int to = Math.min(from + pageable.getPageSize(), ranked.size());
+            List<PostSummaryResponse> content = ranked.subList(from, to).stream()
+                    .map(IndexedPost::summary)
+                    .toList();
+            return new PageImpl<>(content, pageable, ranked.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * BM25 score per document for one query term. For a prefix term each document scores
+     * with its best matching expansion, so short prefixes do not inflate scores.
+     */
+    private Map<Long, Double> scoreTerm(String term, boolean prefix) {
+        Map<String, Map<Long, Integer>> matches = prefix
+                ? postings.subMap(term, true, term + Character.MAX_VALUE, true)
+                : postings.containsKey(term) ? Map.of(term, postings.get(term)) : Map.of();
+
+        int documentCount = documents.size();
+        double averageLength = documentCount == 0 ? 0 : (double) totalLength / documentCount;
+        Map<Long, Double> scores = new HashMap<>();
+        for (Map<Long, Integer> posting : matches.values()) {
+            double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+            posting.forEach((id, frequency) -> {
+                double norm = K1 * (1 - B + B * documents.get(id).length() / averageLength);
+                double score = idf * frequency * (K1 + 1) / (frequency + norm);
+                scores.merge(id, score, Math::max);
+            });
+        }
+        return scores;
+    }
+
+    private void advanceHighWaterMark(BlogPost post) {
+        if (post.getUpdatedAt() != null && post.getUpdatedAt().isAfter(highWaterMark)) {
+            highWaterMark = post.getUpdatedAt();
+        }
+    }
+
+    private void addDocument(BlogPost post) {
+        if (!post.isPublished()) {
+            return;
+        }
+        Map<String, Integer> frequencies = new HashMap<>();
+        addTerms(frequencies, post.getTitle(), TITLE_BOOST);
+        addTerms(frequencies, post.getExcerpt(), 1);
+        if (post.getTags() != null) {
+            post.getTags().stream().map(Tag::getName).forEach(name -> addTerms(frequencies, name, TAG_BOOST));
+        }
+        if (post.getCategory() != null) {
+            addTerms(frequencies, post.getCategory().getName(), 1);
+        }
+        if (post.getContent() != null) {
+            addTerms(frequencies, post.getContent().replaceAll("<[^>]*>", " "), 1);
+        }
+
+        int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+        frequencies.forEach((term, frequency) ->
+                postings.computeIfAbsent(term, t -> new HashMap<>()).put(post.getId(), frequency));
+        documents.put(post.getId(), new IndexedPost(
+                BlogPostMapper.toSummary(post), List.copyOf(frequencies.keySet()), length, post.getCreatedAt()));
+        totalLength += length;
+    }
+
+    private void removeDocument(Long postId) {
+        IndexedPost removed = documents.remove(postId);
+        if (removed == null) {
+            return;
+        }
+        for (String term : removed.terms()) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(postId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= removed.length();
+    }
+
+    private static void addTerms(Map<String, Integer> frequencies, String text, int weight) {
+        for (String term : tokenize(text)) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .toList();
+    }
+
+    private record IndexedPost(PostSummaryResponse summary, List<String> terms, int length, Instant createdAt) {
+    }
+}
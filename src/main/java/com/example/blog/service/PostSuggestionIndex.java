@@ -0,0 +1,321 @@
+package com.example.blog.service;
+
+import com.example.blog.dto.CategoryResponse;
+import com.example.blog.dto.SuggestionResponse;
+import com.example.blog.dto.TagResponse;
+import com.example.blog.entity.BlogPost;
+import com.example.blog.entity.Tag;
+import com.example.blog.event.PostChangedEvent;
+import com.example.blog.event.PostSnapshot;
+import com.example.blog.repository.BlogPostRepository;
+import com.example.blog.repository.CategoryRepository;
+import com.example.blog.repository.PostSummaryView;
+import com.example.blog.repository.TagRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sorted in-memory prefix index of published post titles, tag names and category names,
+ * backing {@code GET /api/posts/suggest}.
+ *
+ * Keys are normalised text, so a prefix lookup is a range scan on a skip list. Titles are also
+ * keyed from every word start, so "boot" suggests "Getting started with Spring Boot".
+ * Entries are loaded at startup and updated after each committed post change: the post's own
+ * entry is reloaded, and the tag and category counts are adjusted from the event's before/after
+ * snapshots without re-aggregating. A periodic resync reloads everything, which corrects drift
+ * and picks up changes made on other instances.
+ */
+@Component
+@Slf4j
+public class PostSuggestionIndex {
+
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    // Best first: more posts, then shorter text, then alphabetical
+    private static final Comparator<Suggestion> RANKING = Comparator.comparingInt(Suggestion::weight).reversed()
+            .thenComparingInt(suggestion -> suggestion.response().getText().length())
+            .thenComparing(suggestion -> suggestion.response().getText());
+
+    private final BlogPostRepository blogPostRepository;
+    private final TagRepository tagRepository;
+    private final CategoryRepository categoryRepository;
+
+    private final ConcurrentSkipListMap<String, Suggestion> entries = new ConcurrentSkipListMap<>();
+    private final Map<Long, Set<String>> postKeys = new ConcurrentHashMap<>();
+    private final Lock taxonomyLock = new ReentrantLock();
+    // Indexed tags and categories by "tag:"/"category:" + slug; guarded by taxonomyLock
+    private final Map<String, TaxonomyEntry> taxonomy = new HashMap<>();
+
+    public PostSuggestionIndex(
+            BlogPostRepository blogPostRepository,
+            TagRepository tagRepository,
+            CategoryRepository categoryRepository
+    ) {
+        this.blogPostRepository = blogPostRepository;
+        this.tagRepository = tagRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        reload();
+        log.info("Built suggestion index: entries={}", entries.size());
+    }
+
+    /**
+     * Reloads posts, tags and categories from the database.
+     */
+    @Scheduled(
+            initialDelayString = "${app.suggestions.resync-interval-ms:600000}",
+            fixedDelayString = "${app.suggestions.resync-interval-ms:600000}")
+    public void resync() {
+        try {
+            reload();
+            log.debug("Resynced suggestion index: entries={}", entries.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not resync suggestion index: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        removePost(event.postId());
+        BlogPost post = blogPostRepository.findWithCategoryAndTagsById(event.postId()).orElse(null);
+        if (post != null && post.isPublished() && !post.isArchived()) {
+            putPost(post);
+        }
+        // Tags and categories are only created through posts, so their counts follow the post's move
+        updateTaxonomy(event, post);
+    }
+
+    /**
+     * Top suggestions whose text (or, for titles, any word of it) starts with the given prefix.
+     * Tags and categories with more posts rank first, then shorter texts.
+     *
+     * Every entry under the prefix is ranked (keys sort alphabetically, not by rank), keeping only
+     * the best {@code limit} in a min-heap.
+     */
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        // worst of the kept suggestions at the head
+        PriorityQueue<Suggestion> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        Set<String> seen = new HashSet<>();
+        for (Suggestion suggestion : entries.subMap(normalized, true, normalized + Character.MAX_VALUE, false).values()) {
+            // a title is keyed once per word, so the same post can match more than once
+            if (!seen.add(suggestion.id())) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(suggestion);
+            } else if (RANKING.compare(suggestion, best.peek()) < 0) {
+                best.poll();
+                best.add(suggestion);
+            }
+        }
+
+        return best.stream()
+                .sorted(RANKING)
+                .map(Suggestion::response)
+                .toList();
+    }
+
+    private void putPost(BlogPost post) {
+        putPost(post.getId(), post.getTitle(), post.getSlug());
+    }
+
+    private void putPost(Long postId, String title, String slug) {
+        Suggestion suggestion = new Suggestion("post:" + postId, 1, SuggestionResponse.builder()
+                .text(title)
+                .type(SuggestionResponse.Type.POST)
+                .slug(slug)
+                .build());
+        Set<String> keys = new HashSet<>();
+        String normalized = normalize(title);
+        // Key the title from every word start so mid-title words match as well
+        for (int start = 0; start < normalized.length(); start = normalized.indexOf(' ', start) + 1) {
+            keys.add(normalized.substring(start) + KEY_SEPARATOR + suggestion.id());
+            if (normalized.indexOf(' ', start) < 0) {
+                break;
+            }
+        }
+        keys.forEach(key -> entries.put(key, suggestion));
+        Set<String> previous = postKeys.put(postId, keys);
+        if (previous != null) {
+            // drop the keys of an old title
+            previous.stream().filter(key -> !keys.contains(key)).forEach(entries::remove);
+        }
+    }
+
+    private void removePost(Long postId) {
+        Set<String> keys = postKeys.remove(postId);
+        if (keys != null) {
+            keys.forEach(entries::remove);
+        }
+    }
+
+    private void reload() {
+        Set<Long> published = new HashSet<>();
+        for (PostSummaryView post : blogPostRepository.findPublishedSummaries(Pageable.unpaged())) {
+            if (!Boolean.TRUE.equals(post.getArchived())) {
+                putPost(post.getId(), post.getTitle(), post.getSlug());
+                published.add(post.getId());
+            }
+        }
+        for (Long postId : List.copyOf(postKeys.keySet())) {
+            if (!published.contains(postId)) {
+                removePost(postId);
+            }
+        }
+        refreshTaxonomy();
+    }
+
+    private void refreshTaxonomy() {
+        Map<String, TaxonomyEntry> fresh = new HashMap<>();
+        for (TagResponse tag : tagRepository.findAllWithPublishedPostCounts()) {
+            if (tag.getPostCount() > 0) {
+                TaxonomyEntry entry = new TaxonomyEntry("tag:" + tag.getId(), tag.getName(), tag.getSlug(),
+                        SuggestionResponse.Type.TAG, tag.getPostCount());
+                fresh.put(tagRef(tag.getSlug()), entry);
+            }
+        }
+        for (CategoryResponse category : categoryRepository.findAllWithPublishedPostCounts()) {
+            if (category.getPostCount() > 0) {
+                TaxonomyEntry entry = new TaxonomyEntry("category:" + category.getId(), category.getName(),
+                        category.getSlug(), SuggestionResponse.Type.CATEGORY, category.getPostCount());
+                fresh.put(categoryRef(category.getSlug()), entry);
+            }
+        }
+        taxonomyLock.lock();
+        try {
+            taxonomy.values().forEach(entry -> entries.remove(entry.key()));
+            taxonomy.clear();
+            fresh.forEach(this::putTaxonomy);
+        } finally {
+            taxonomyLock.unlock();
+        }
+    }
+
+    /**
+     * Moves the post's contribution from the tags and category it was counted under to the ones it
+     * is counted under now. A post counts while it is published and not archived.
+     */
+    private void updateTaxonomy(PostChangedEvent event, BlogPost post) {
+        Map<String, Integer> deltas = new HashMap<>();
+        addCounts(deltas, event.before(), -1);
+        addCounts(deltas, event.after(), 1);
+        deltas.values().removeIf(delta -> delta == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        taxonomyLock.lock();
+        try {
+            deltas.forEach((ref, delta) -> {
+                TaxonomyEntry existing = taxonomy.get(ref);
+                if (existing == null) {
+                    // first counted post of a tag or category: name and id come from the post
+                    TaxonomyEntry added = delta > 0 ? newTaxonomyEntry(ref, post, delta) : null;
+                    if (added != null) {
+                        putTaxonomy(ref, added);
+                    }
+                    return;
+                }
+                entries.remove(existing.key());
+                taxonomy.remove(ref);
+                int postCount = existing.postCount() + delta;
+                if (postCount > 0) {
+                    putTaxonomy(ref, existing.withPostCount(postCount));
+                }
+            });
+        } finally {
+            taxonomyLock.unlock();
+        }
+    }
+
+    private static void addCounts(Map<String, Integer> deltas, PostSnapshot snapshot, int delta) {
+        if (snapshot == null || !snapshot.published() || snapshot.archived()) {
+            return;
+        }
+        snapshot.tagSlugs().forEach(slug -> deltas.merge(tagRef(slug), delta, Integer::sum));
+        if (snapshot.categorySlug() != null) {
+            deltas.merge(categoryRef(snapshot.categorySlug()), delta, Integer::sum);
+        }
+    }
+
+    private static TaxonomyEntry newTaxonomyEntry(String ref, BlogPost post, int postCount) {
+        if (post == null) {
+            return null; // deleted again since; the next resync settles it
+        }
+        if (post.getCategory() != null && ref.equals(categoryRef(post.getCategory().getSlug()))) {
+            return new TaxonomyEntry("category:" + post.getCategory().getId(), post.getCategory().getName(),
+                    post.getCategory().getSlug(), SuggestionResponse.Type.CATEGORY, postCount);
+        }
+        for (Tag tag : post.getTags()) {
+            if (ref.equals(tagRef(tag.getSlug()))) {
+                return new TaxonomyEntry("tag:" + tag.getId(), tag.getName(), tag.getSlug(),
+                        SuggestionResponse.Type.TAG, postCount);
+            }
+        }
+        return null;
+    }
+
+    private void putTaxonomy(String ref, TaxonomyEntry entry) {
+        taxonomy.put(ref, entry);
+        entries.put(entry.key(), new Suggestion(entry.id(), entry.postCount(), SuggestionResponse.builder()
+                .text(entry.name())
+                .type(entry.type())
+                .slug(entry.slug())
+                .build()));
+    }
+
+    private static String tagRef(String slug) {
+        return "tag:" + slug;
+    }
+
+    private static String categoryRef(String slug) {
+        return "category:" + slug;
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    private record Suggestion(String id, int weight, SuggestionResponse response) {
+    }
+
+    private record TaxonomyEntry(String id, String name, String slug, SuggestionResponse.Type type, int postCount) {
+
+        String key() {
+            return normalize(name) + KEY_SEPARATOR + id;
+        }
+
+        TaxonomyEntry withPostCount(int postCount) {
+            return new TaxonomyEntry(id, name, slug, type, postCount);
+        }
+    }
+}
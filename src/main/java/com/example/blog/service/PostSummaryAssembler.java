@@ -0,0 +1,108 @@
+package com.example.blog.service;
+
+import com.example.blog.dto.CursorPageResponse;
+import com.example.blog.dto.PostCursor;
+import com.example.blog.dto.PostSummaryResponse;
+import com.example.blog.mapper.BlogPostMapper;
+import com.example.blog.repository.BlogPostRepository;
+import com.example.blog.repository.PostContentView;
+import com.example.blog.repository.PostSummaryView;
+import com.example.blog.repository.PostTagView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Turns pages of {@link PostSummaryView} projections into {@link PostSummaryResponse} DTOs.
+ * Tag names for a whole page are fetched with a single secondary query, so a listing costs
+ * a constant number of statements and never reads post content.
+ */
+@Component
+@RequiredArgsConstructor
+public class PostSummaryAssembler {
+
+    private final BlogPostRepository blogPostRepository;
+
+    /**
+     * Build a page from a slice and a feed total. The total is only looked up when the slice
+     * alone cannot determine it (i.e. unless this is a short last page).
+     */
+    public Page<PostSummaryResponse> toSummaryPage(Slice<PostSummaryView> slice, LongSupplier total) {
+        return PageableExecutionUtils.getPage(toSummaries(slice.getContent()), slice.getPageable(), total);
+    }
+
+    /**
+     * Load summaries for a page of post ids (e.g. from a native search query), preserving id order.
+     */
+    public Page<PostSummaryResponse> toSummaryPageFromIds(Page<Long> idPage) {
+        List<Long> ids = idPage.getContent();
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), idPage.getPageable(), idPage.getTotalElements());
+        }
+        Map<Long, PostSummaryView> viewsById = blogPostRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(PostSummaryView::getId, Function.identity()));
+        List<PostSummaryView> ordered = ids.stream()
+                .map(viewsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new PageImpl<>(toSummaries(ordered), idPage.getPageable(), idPage.getTotalElements());
+    }
+
+    /**
+     * Build a cursor page from keyset rows fetched with a limit of {@code size + 1};
+     * the extra row only signals that another page exists and is not returned.
+     */
+    public CursorPageResponse<PostSummaryResponse> toCursorPage(List<PostSummaryView> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        List<PostSummaryView> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            PostSummaryView last = page.get(page.size() - 1);
+            nextCursor = new PostCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return CursorPageResponse.<PostSummaryResponse>builder()
+                .content(toSummaries(page))
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .size(size)
+                .build();
+    }
+
+    public List<PostSummaryResponse> toSummaries(List<PostSummaryView> views) {
+        if (views.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = views.stream().map(PostSummaryView::getId).collect(Collectors.toList());
+
+        Map<Long, List<String>> tagsByPost = blogPostRepository.findTagNamesByPostIds(ids).stream()
+                .collect(Collectors.groupingBy(PostTagView::getPostId,
+                        Collectors.mapping(PostTagView::getTagName, Collectors.toList())));
+
+        // Excerpts are generated on write, so content is only needed for legacy rows without one
+        List<Long> missingExcerpt = views.stream()
+                .filter(view -> view.getExcerpt() == null || view.getExcerpt().isBlank())
+                .map(PostSummaryView::getId)
+                .collect(Collectors.toList());
+        Map<Long, String> contentById = missingExcerpt.isEmpty() ? Map.of()
+                : blogPostRepository.findContentByIdIn(missingExcerpt).stream()
+                        .filter(row -> row.getContent() != null)
+                        .collect(Collectors.toMap(PostContentView::getId, PostContentView::getContent));
+
+        return views.stream()
+                .map(view -> BlogPostMapper.toSummary(
+                        view,
+                        tagsByPost.getOrDefault(view.getId(), List.of()),
+                        contentById.get(view.getId())))
+                .collect(Collectors.toList());
+    }
+}
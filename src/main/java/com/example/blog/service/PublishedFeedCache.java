@@ -0,0 +1,147 @@
+package com.example.blog.service;
+
+import com.example.blog.dto.PostSummaryResponse;
+import com.example.blog.event.ContentRevisionChangedEvent;
+import com.example.blog.event.PostChangedEvent;
+import com.example.blog.repository.BlogPostRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snapshot of the first pages of the published feed (the default {@code GET /api/posts}).
+ *
+ * Concurrent misses for the same page share a single in-flight load. After a post changes, the
+ * snapshot is dropped and each page is reloaded by its next reader (once, however many readers
+ * arrive meanwhile); a listing is never served under the new content revision with old content.
+ *
+ * The snapshot is also rebuilt every {@code app.feed-cache.refresh-interval-ms} (the same bound
+ * as the other listing caches), so changes that raise no event here, such as direct database
+ * edits, are served for at most that long. Readers keep the previous snapshot during that rebuild.
+ */
+@Component
+@Slf4j
+public class PublishedFeedCache {
+
+    private final BlogPostRepository blogPostRepository;
+    private final PostSummaryAssembler postSummaryAssembler;
+    private final FeedCountCache feedCountCache;
+    private final int pageSize;
+    private final int pages;
+
+    private final ConcurrentMap<Integer, CompletableFuture<Page<PostSummaryResponse>>> snapshot = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public PublishedFeedCache(
+            BlogPostRepository blogPostRepository,
+            PostSummaryAssembler postSummaryAssembler,
+            FeedCountCache feedCountCache,
+            @Value("${app.feed-cache.page-size:10}") int pageSize,
+            @Value("${app.feed-cache.pages:3}") int pages
+    ) {
+        this.blogPostRepository = blogPostRepository;
+        this.postSummaryAssembler = postSummaryAssembler;
+        this.feedCountCache = feedCountCache;
+        this.pageSize = pageSize;
+        this.pages = pages;
+    }
+
+    /**
+     * Whether the given page request is one of the precomputed feed pages.
+     */
+    public boolean covers(Pageable pageable) {
+        return pageable.getPageSize() == pageSize
+                && pageable.getPageNumber() < pages
+                && pageable.getSort().isUnsorted();
+    }
+
+    public Page<PostSummaryResponse> get(Pageable pageable) {
+        int page = pageable.getPageNumber();
+        CompletableFuture<Page<PostSummaryResponse>> future = snapshot.get(page);
+        if (future == null) {
+            CompletableFuture<Page<PostSummaryResponse>> loading = new CompletableFuture<>();
+            future = snapshot.putIfAbsent(page, loading);
+            if (future == null) {
+                future = loading;
+                try {
+                    loading.complete(load(page));
+                } catch (RuntimeException e) {
+                    snapshot.remove(page, loading);
+                    loading.completeExceptionally(e);
+                }
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        invalidateAll();
+    }
+
+    /**
+     * Drops the snapshot and cancels a running periodic rebuild; pages are loaded again on their
+     * next read. Also runs when another instance changed content, so the listing served next
+     * matches the new ETag.
+     */
+    @EventListener(ContentRevisionChangedEvent.class)
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        snapshot.clear();
+    }
+
+    /**
+     * Periodic rebuild of the cached pages, on the scheduler thread; readers keep the previous
+     * snapshot meanwhile.
+     */
+    @Scheduled(
+            initialDelayString = "${app.feed-cache.refresh-interval-ms:600000}",
+            fixedDelayString = "${app.feed-cache.refresh-interval-ms:600000}")
+    public void refresh() {
+        rebuild(generation.incrementAndGet());
+    }
+
+    private void rebuild(long target) {
+        for (Map.Entry<Integer, CompletableFuture<Page<PostSummaryResponse>>> entry : snapshot.entrySet()) {
+            if (generation.get() != target) {
+                return; // superseded by a change; its readers load the pages again
+            }
+            Integer page = entry.getKey();
+            CompletableFuture<Page<PostSummaryResponse>> previous = entry.getValue();
+            try {
+                // only replaces the page it started from, never one reloaded after a change
+                snapshot.replace(page, previous, CompletableFuture.completedFuture(load(page)));
+            } catch (RuntimeException e) {
+                // Drop the stale page; the next request reloads it
+                log.warn("Failed to rebuild published feed page {}: {}", page, e.getMessage());
+                snapshot.remove(page, previous);
+            }
+        }
+        log.debug("Rebuilt published feed snapshot: pages={}", snapshot.size());
+    }
+
+    private Page<PostSummaryResponse> load(int page) {
+        return postSummaryAssembler.toSummaryPage(
+                blogPostRepository.findPublishedSummaries(PageRequest.of(page, pageSize)), feedCountCache::countPublished);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.blog.service;
+
+/**
+ * Strategy used by {@link BlogPostService#search} to match posts, selected with {@code app.search.mode}.
+ */
+public enum SearchMode {
+
+    /**
+     * Case-insensitive substring match on title and content.
+     * Works on any database (including the H2 test profile) but scans every post.
+     */
+    LIKE,
+
+    /**
+     * PostgreSQL full-text search over the generated {@code posts.search_vector} column,
+     * with stemming, phrase/boolean syntax (websearch_to_tsquery) and relevance ranking.
+     * Requires migrations/V4__add_posts_full_text_search.sql.
+     */
+    FULL_TEXT,
+
+    /**
+     * In-process inverted index ({@link PostSearchIndex}) with BM25 ranking and prefix matching.
+     * Works on any database; searches never hit the datasource once the index is built.
+     */
+    INDEX
+}
@@ -0,0 +1,113 @@
+package com.example.blog.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+
+/**
+ * A multipart upload that has been copied to a local spool file, so it outlives the request
+ * that received it and can be handed to {@link StorageService#upload} from a worker thread.
+ */
+class SpooledMultipartFile implements MultipartFile {
+
+    private final Path path;
+    private final String originalFilename;
+    private final String contentType;
+    private final long size;
+    private final String contentHash;
+
+    SpooledMultipartFile(Path path, String originalFilename, String contentType, long size, String contentHash) {
+        this.path = path;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+        this.size = size;
+        this.contentHash = contentHash;
+    }
+
+    /**
+     * Copies the request's part into a new file under {@code spoolDir}, hashing it on the way.
+     */
+    static SpooledMultipartFile spool(MultipartFile file, Path spoolDir) throws IOException {
+        Path path = Files.createTempFile(spoolDir, "upload-", ".part");
+        MessageDigest digest = ContentHashes.newDigest();
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            Files.copy(in, path, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+        return new SpooledMultipartFile(path, file.getOriginalFilename(), file.getContentType(), file.getSize(),
+                ContentHashes.hex(digest));
+    }
+
+    Path path() {
+        return path;
+    }
+
+    /**
+     * SHA-256 of the spooled content, as lowercase hex.
+     */
+    String contentHash() {
+        return contentHash;
+    }
+
+    void delete() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // temp dir cleanup will get it
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        return Files.readAllBytes(path);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return Files.newInputStream(path);
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        transferTo(dest.toPath());
+    }
+
+    @Override
+    public void transferTo(Path dest) throws IOException {
+        Files.copy(path, dest, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -41,7 +41,7 @@ public interface StorageService {
      * @param contentType MIME type for the upload
      * @param validFor    duration for which the URL is valid
      * @return presigned URL the client can use to upload directly to storage
-     * @throws StorageException when signing fails
+     * @throws StorageException when signing fails or the backend does not accept direct uploads
      */
     String presignPutUrl(String key, String contentType, Duration validFor) throws StorageException;
 
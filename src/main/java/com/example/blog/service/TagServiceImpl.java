@@ -18,8 +18,8 @@ public class TagServiceImpl implements TagService {
 
     @Override
     public List<TagResponse> findAllWithPublishedPosts() {
-        return tagRepository.findAllWithPublishedPosts().stream()
-                .map(BlogPostMapper::toTagResponse)
+        return tagRepository.findAllWithPublishedPostCounts().stream()
+                .filter(tag -> tag.getPostCount() > 0)
                 .collect(Collectors.toList());
     }
 
@@ -15,6 +15,7 @@ public interface VisitorService {
 
     /**
      * Increment the visitor count and return the updated count.
+     * The count may briefly run ahead of the persisted value while increments are buffered.
      */
     VisitorCountResponse incrementAndGetVisitorCount();
 }
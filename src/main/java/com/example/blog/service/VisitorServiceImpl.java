@@ -3,22 +3,70 @@ package com.example.blog.service;
 
 import com.example.blog.dto.VisitorCountResponse;
 import com.example.blog.entity.SiteStats;
+import com.example.blog.entity.SiteStatsShard;
 import com.example.blog.repository.SiteStatsRepository;
-import lombok.RequiredArgsConstructor;
+import com.example.blog.repository.SiteStatsShardRepository;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Implementation of visitor tracking service.
- * Uses atomic database updates to safely handle concurrent visitor increments.
+ * Visits are absorbed by an in-memory striped counter and written to the database
+ * in batches (write-behind), so tracking a visit costs no database round trip.
+ * Each flush goes to a random counter shard, so several instances flushing at once
+ * do not serialise on one row; a compaction job folds the shards into the global row.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class VisitorServiceImpl implements VisitorService {
 
     private final SiteStatsRepository siteStatsRepository;
+    private final SiteStatsShardRepository siteStatsShardRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int shardCount;
+
+    /** Visits counted in memory but not yet flushed to the database. */
+    private final LongAdder pendingVisitors = new LongAdder();
+
+    /** Visitor total persisted in the database, as far as this instance knows. */
+    private final AtomicLong persistedVisitors = new AtomicLong();
+
+    /** Highest total handed out so far; keeps responses monotonic across flushes. */
+    private final AtomicLong reportedVisitors = new AtomicLong();
+
+    private final Lock loadLock = new ReentrantLock();
+    /** Serialises the scheduled and shutdown flushes so one delta is never written twice. */
+    private final Lock flushLock = new ReentrantLock();
+    private volatile boolean loaded;
+    private volatile LocalDateTime lastUpdated;
+
+    public VisitorServiceImpl(
+            SiteStatsRepository siteStatsRepository,
+            SiteStatsShardRepository siteStatsShardRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.visitors.shards:16}") int shardCount
+    ) {
+        this.siteStatsRepository = siteStatsRepository;
+        this.siteStatsShardRepository = siteStatsShardRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.shardCount = shardCount;
+    }
 
     /**
      * Ensure the site stats row exists, creating it if necessary.
@@ -36,30 +84,139 @@ public class VisitorServiceImpl implements VisitorService {
                 });
     }
 
-    @Override
-    @Transactional(readOnly = true)
-    public VisitorCountResponse getVisitorCount() {
-        SiteStats stats = siteStatsRepository.findById(SiteStats.GLOBAL_STATS_ID)
-                .orElse(SiteStats.builder()
-                        .id(SiteStats.GLOBAL_STATS_ID)
-                        .totalVisitors(0L)
-                        .build());
+    /**
+     * Create any missing counter shard rows. Another instance may be doing the same,
+     * in which case the duplicate insert is ignored.
+     */
+    private void ensureShardsExist() {
+        Set<Integer> existing = siteStatsShardRepository.findAll().stream()
+                .map(SiteStatsShard::getId)
+                .collect(Collectors.toSet());
+        List<SiteStatsShard> missing = IntStream.range(0, shardCount)
+                .filter(id -> !existing.contains(id))
+                .mapToObj(id -> SiteStatsShard.builder().id(id).visitors(0L).build())
+                .collect(Collectors.toList());
+        if (missing.isEmpty()) {
+            return;
+        }
+        try {
+            siteStatsShardRepository.saveAll(missing);
+            log.info("Initialized {} visitor counter shards", missing.size());
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Visitor counter shards created concurrently: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Load the persisted total once; afterwards all reads are served from memory.
+     */
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        // A lock rather than synchronized: the load does I/O, which would pin a virtual thread's carrier
+        loadLock.lock();
+        try {
+            if (!loaded) {
+                SiteStats stats = ensureSiteStatsExists();
+                ensureShardsExist();
+                persistedVisitors.set(siteStatsRepository.sumVisitors(SiteStats.GLOBAL_STATS_ID));
+                lastUpdated = stats.getLastUpdated();
+                loaded = true;
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
 
+    private VisitorCountResponse currentCount() {
+        long total = reportedVisitors.accumulateAndGet(
+                persistedVisitors.get() + pendingVisitors.sum(), Math::max);
         return VisitorCountResponse.builder()
-                .totalVisitors(stats.getTotalVisitors())
-                .lastUpdated(stats.getLastUpdated())
+                .totalVisitors(total)
+                .lastUpdated(lastUpdated)
                 .build();
     }
 
     @Override
-    @Transactional
+    public VisitorCountResponse getVisitorCount() {
+        ensureLoaded();
+        return currentCount();
+    }
+
+    @Override
     public VisitorCountResponse incrementAndGetVisitorCount() {
-        // First ensure the record exists
-        ensureSiteStatsExists();
+        ensureLoaded();
+        pendingVisitors.increment();
+        lastUpdated = LocalDateTime.now();
+        return currentCount();
+    }
 
-        // Use atomic increment to prevent race conditions
-        siteStatsRepository.incrementVisitorCount(SiteStats.GLOBAL_STATS_ID);
+    /**
+     * Write the visits accumulated since the last flush to a random counter shard in one
+     * atomic update, then re-read the total so increments from other instances show up.
+     * On failure the delta stays pending and is retried on the next run.
+     */
+    @Scheduled(fixedDelayString = "${app.visitors.flush-interval-ms:5000}")
+    public void flushPendingVisitors() {
+        if (!loaded) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            flushLocked();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushLocked() {
+        long delta = pendingVisitors.sum();
+        try {
+            if (delta != 0) {
+                int shard = ThreadLocalRandom.current().nextInt(shardCount);
+                if (siteStatsShardRepository.addVisitors(shard, delta) == 0) {
+                    // Shard row missing (e.g. shard count raised); fall back to the global row
+                    siteStatsRepository.addVisitors(SiteStats.GLOBAL_STATS_ID, delta);
+                }
+                pendingVisitors.add(-delta);
+                log.debug("Flushed {} visits to counter shard {}", delta, shard);
+            }
+            persistedVisitors.set(siteStatsRepository.sumVisitors(SiteStats.GLOBAL_STATS_ID));
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush {} pending visits, will retry: {}", delta, e.getMessage());
+        }
+    }
+
+    /**
+     * Fold all counter shards back into the global row. Shards are locked for the duration,
+     * so flushes that arrive meanwhile wait and are applied to the zeroed shard afterwards.
+     */
+    @Scheduled(fixedDelayString = "${app.visitors.compaction-interval-ms:600000}")
+    public void compactShards() {
+        if (!loaded) {
+            return;
+        }
+        try {
+            Long folded = transactionTemplate.execute(status -> {
+                List<SiteStatsShard> shards = siteStatsShardRepository.findAllForUpdate();
+                long sum = shards.stream().mapToLong(SiteStatsShard::getVisitors).sum();
+                if (sum == 0) {
+                    return 0L;
+                }
+                // Zero the shards before the bulk update, which flushes and clears the context
+                shards.forEach(shard -> shard.setVisitors(0L));
+                siteStatsRepository.addVisitors(SiteStats.GLOBAL_STATS_ID, sum);
+                return sum;
+            });
+            log.debug("Compacted {} visits from counter shards", folded);
+        } catch (RuntimeException e) {
+            log.warn("Failed to compact visitor counter shards: {}", e.getMessage());
+        }
+    }
 
-        return getVisitorCount();
+    @PreDestroy
+    void flushOnShutdown() {
+        flushPendingVisitors();
     }
 }
@@ -32,3 +32,100 @@ INSERT INTO site_stats (id, total_visitors, last_updated)
 VALUES (1, 0, CURRENT_TIMESTAMP)
 ON CONFLICT (id) DO NOTHING;
 
+
+-- Visitor counter shards; instances add buffered visits to a random shard
+CREATE TABLE IF NOT EXISTS site_stats_shards (
+    id INTEGER PRIMARY KEY,
+    visitors BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO site_stats_shards (id, visitors)
+SELECT g, 0 FROM generate_series(0, 15) AS g
+ON CONFLICT (id) DO NOTHING;
+
+-- Full-text search: weighted tsvector over title/excerpt/content, kept up to date by Postgres
+ALTER TABLE IF EXISTS posts
+    ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(excerpt, '')), 'B') ||
+        setweight(to_tsvector('english', coalesce(content, '')), 'C')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_posts_search_vector ON posts USING GIN (search_vector);
+
+-- Keyset pagination: feeds seek on (created_at, id) newest first instead of OFFSET scans
+CREATE INDEX IF NOT EXISTS idx_posts_created_at_id ON posts(created_at DESC, id DESC);
+
+-- In-memory search index resync: posts changed since the last sync
+CREATE INDEX IF NOT EXISTS idx_posts_updated_at ON posts(updated_at);
+
+-- JWT revocation: tokens carry the user's token_version as "ver"; bumping it revokes older tokens
+ALTER TABLE IF EXISTS users
+    ADD COLUMN IF NOT EXISTS token_version INTEGER NOT NULL DEFAULT 0;
+
+-- Async image uploads: rows are written PENDING and flipped to READY/FAILED by the upload workers
+ALTER TABLE IF EXISTS images
+    ADD COLUMN IF NOT EXISTS status VARCHAR(20) NOT NULL DEFAULT 'READY';
+
+ALTER TABLE IF EXISTS images
+    ADD COLUMN IF NOT EXISTS failure_reason VARCHAR(500);
+
+-- Upload deduplication: SHA-256 of the file content; identical uploads reuse the existing image
+ALTER TABLE IF EXISTS images
+    ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_images_content_hash ON images(content_hash);
+
+-- Resized image variants (thumbnail/card/full) produced on upload
+CREATE TABLE IF NOT EXISTS image_variants (
+    image_id BIGINT NOT NULL REFERENCES images(id) ON DELETE CASCADE,
+    size VARCHAR(20) NOT NULL,
+    width INTEGER NOT NULL,
+    height INTEGER NOT NULL,
+    bytes BIGINT,
+    key VARCHAR(255),
+    file_id VARCHAR(255),
+    url VARCHAR(255)
+);
+
+CREATE INDEX IF NOT EXISTS idx_image_variants_image_id ON image_variants(image_id);
+
+-- Cover variant URLs copied onto posts so listings need no join
+ALTER TABLE IF EXISTS posts
+    ADD COLUMN IF NOT EXISTS cover_thumbnail_url VARCHAR(255);
+
+ALTER TABLE IF EXISTS posts
+    ADD COLUMN IF NOT EXISTS cover_card_url VARCHAR(255);
+
+ALTER TABLE IF EXISTS posts
+    ADD COLUMN IF NOT EXISTS cover_full_url VARCHAR(255);
+
+-- Pooled id sequences (allocationSize 50) replace IDENTITY so inserts can be JDBC-batched.
+-- Hibernate hands out ids (value - 49 .. value) per nextval, so setval(max id, true) makes the
+-- next block start right after the existing rows; GREATEST keeps a sequence in use from moving back.
+CREATE SEQUENCE IF NOT EXISTS posts_seq INCREMENT BY 50;
+SELECT setval('posts_seq', GREATEST((SELECT last_value FROM posts_seq), COALESCE((SELECT MAX(id) FROM posts), 0)), true);
+
+CREATE SEQUENCE IF NOT EXISTS tags_seq INCREMENT BY 50;
+SELECT setval('tags_seq', GREATEST((SELECT last_value FROM tags_seq), COALESCE((SELECT MAX(id) FROM tags), 0)), true);
+
+CREATE SEQUENCE IF NOT EXISTS categories_seq INCREMENT BY 50;
+SELECT setval('categories_seq', GREATEST((SELECT last_value FROM categories_seq), COALESCE((SELECT MAX(id) FROM categories), 0)), true);
+
+CREATE SEQUENCE IF NOT EXISTS images_seq INCREMENT BY 50;
+SELECT setval('images_seq', GREATEST((SELECT last_value FROM images_seq), COALESCE((SELECT MAX(id) FROM images), 0)), true);
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+SELECT setval('users_seq', GREATEST((SELECT last_value FROM users_seq), COALESCE((SELECT MAX(id) FROM users), 0)), true);
+
+-- Revision of the published content; bumped with every post change so all instances share listing ETags
+CREATE TABLE IF NOT EXISTS content_revision (
+    id BIGINT PRIMARY KEY,
+    revision BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+INSERT INTO content_revision (id, revision, updated_at)
+VALUES (1, 0, CURRENT_TIMESTAMP)
+ON CONFLICT (id) DO NOTHING;
@@ -0,0 +1,41 @@
+package com.example.blog.config;
+
+import com.example.blog.exception.DatabaseBusyException;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdmissionControlledDataSourceTests {
+
+    private final AdmissionControlledDataSource dataSource = new AdmissionControlledDataSource(
+            h2(), 2, Duration.ofMillis(50), Duration.ofSeconds(3));
+
+    @Test
+    void rejectsCallersBeyondTheLimitUntilAConnectionIsClosed() throws Exception {
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+
+        assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(DatabaseBusyException.class)
+                .satisfies(ex -> assertThat(((DatabaseBusyException) ex).getRetryAfterSeconds()).isEqualTo(3));
+
+        first.close();
+        first.close(); // closing twice must not free a second slot
+        try (Connection third = dataSource.getConnection()) {
+            assertThat(third.isValid(1)).isTrue();
+            assertThatThrownBy(dataSource::getConnection).isInstanceOf(DatabaseBusyException.class);
+        }
+        second.close();
+    }
+
+    private static JdbcDataSource h2() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:admission-gate;DB_CLOSE_DELAY=-1");
+        return h2;
+    }
+}
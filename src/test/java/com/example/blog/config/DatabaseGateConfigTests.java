@@ -0,0 +1,70 @@
+package com.example.blog.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * With the gate enabled, requests that cannot get a database slot are shed with 503 and
+ * Retry-After instead of waiting on the pool.
+ */
+@SpringBootTest(properties = {
+        // own database: this context must not create-drop the schema shared by the other tests
+        "spring.datasource.url=jdbc:h2:mem:database-gate;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;NON_KEYWORDS=KEY",
+        "app.db.gate.enabled=true",
+        "app.db.gate.max-concurrent=2",
+        "app.db.gate.acquire-timeout=100ms",
+        "app.db.gate.retry-after=3s"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DatabaseGateConfigTests {
+
+    private static final int MAX_CONCURRENT = 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void requestsAreShedWithRetryAfterWhileThePoolIsSaturated() throws Exception {
+        assertThat(dataSource).isInstanceOf(AdmissionControlledDataSource.class);
+
+        List<Connection> held = new ArrayList<>();
+        try {
+            for (int i = 0; i < MAX_CONCURRENT; i++) {
+                held.add(dataSource.getConnection());
+            }
+
+            mockMvc.perform(get("/api/posts/categories/all"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "3"))
+                    .andExpect(jsonPath("$.status").value(503))
+                    .andExpect(jsonPath("$.path").value("/api/posts/categories/all"));
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+
+        mockMvc.perform(get("/api/posts/categories/all"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.blog.controller;
+
+import com.example.blog.dto.CreatePostRequest;
+import com.example.blog.dto.PostResponse;
+import com.example.blog.dto.UpdatePostRequest;
+import com.example.blog.event.ContentRevisionChangedEvent;
+import com.example.blog.service.BlogPostService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@RecordApplicationEvents
+class ConditionalGetTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BlogPostService blogPostService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @Test
+    void postDetailAnswersNotModifiedUntilThePostChanges() throws Exception {
+        PostResponse post = createPost();
+        String etag = mockMvc.perform(get("/api/posts/slug/" + post.getSlug()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, public"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/posts/slug/" + post.getSlug()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        blogPostService.updatePost(post.getId(), UpdatePostRequest.builder().excerpt("Changed excerpt").build());
+
+        mockMvc.perform(get("/api/posts/slug/" + post.getSlug()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void listingsAnswerNotModifiedUntilAnyPostChanges() throws Exception {
+        createPost();
+        String etag = mockMvc.perform(get("/api/tags"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/posts").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/categories").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        createPost();
+
+        String fresh = mockMvc.perform(get("/api/posts").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(fresh).isNotEqualTo(etag);
+    }
+
+    @Test
+    void listingsFollowChangesMadeByOtherInstances() throws Exception {
+        PostResponse post = createPost();
+        String etag = mockMvc.perform(get("/api/posts"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // another instance edits a post and bumps the shared revision in the same transaction
+        jdbcTemplate.update("UPDATE posts SET title = ? WHERE id = ?", "Renamed elsewhere", post.getId());
+        bumpRevisionElsewhere();
+
+        String fresh = mockMvc.perform(get("/api/posts").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[?(@.id == " + post.getId() + ")].title").value("Renamed elsewhere"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(fresh).isNotEqualTo(etag);
+        assertThat(applicationEvents.stream(ContentRevisionChangedEvent.class)).hasSize(1);
+
+        mockMvc.perform(get("/api/categories").header(HttpHeaders.IF_NONE_MATCH, fresh))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void localChangesDoNotAnnounceARemoteRevision() throws Exception {
+        mockMvc.perform(get("/api/posts")).andExpect(status().isOk());
+        PostResponse post = createPost();
+
+        String etag = mockMvc.perform(get("/api/posts"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[?(@.id == " + post.getId() + ")].title").value(post.getTitle()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        blogPostService.updatePost(post.getId(), UpdatePostRequest.builder().excerpt("Changed here").build());
+        String fresh = mockMvc.perform(get("/api/posts"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[?(@.id == " + post.getId() + ")].excerpt").value("Changed here"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // this instance's own revisions were already applied from its PostChangedEvents
+        assertThat(fresh).isNotEqualTo(etag);
+        assertThat(applicationEvents.stream(ContentRevisionChangedEvent.class)).isEmpty();
+    }
+
+    @Test
+    void publishedPostsAreServedPreRenderedAndGzipped() throws Exception {
+        PostResponse post = createPost();
+
+        byte[] gzipped = mockMvc.perform(get("/api/posts/slug/" + post.getSlug()).header(HttpHeaders.ACCEPT_ENCODING, "gzip, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).contains(post.getTitle());
+        }
+
+        mockMvc.perform(get("/api/posts/slug/" + post.getSlug()))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$.title").value(post.getTitle()));
+
+        blogPostService.updatePost(post.getId(), UpdatePostRequest.builder().title(post.getTitle() + " v2").build());
+
+        mockMvc.perform(get("/api/posts/slug/" + post.getSlug()))
+                .andExpect(jsonPath("$.title").value(post.getTitle() + " v2"));
+    }
+
+    @Test
+    void preRenderedPostsFollowChangesMadeByOtherInstances() throws Exception {
+        PostResponse post = createPost();
+        String etag = mockMvc.perform(get("/api/posts/slug/" + post.getSlug()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // another instance edits the row and bumps the shared revision: no PostChangedEvent reaches this one
+        jdbcTemplate.update("UPDATE posts SET title = ?, updated_at = ? WHERE id = ?",
+                "Edited elsewhere", Timestamp.from(Instant.now().plusSeconds(1)), post.getId());
+        bumpRevisionElsewhere();
+
+        mockMvc.perform(get("/api/posts/slug/" + post.getSlug()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Edited elsewhere"));
+
+        jdbcTemplate.update("DELETE FROM post_tags WHERE post_id = ?", post.getId());
+        jdbcTemplate.update("DELETE FROM posts WHERE id = ?", post.getId());
+        bumpRevisionElsewhere();
+
+        mockMvc.perform(get("/api/posts/slug/" + post.getSlug()))
+                .andExpect(status().isNotFound());
+    }
+
+    private void bumpRevisionElsewhere() {
+        jdbcTemplate.update("UPDATE content_revision SET revision = revision + 1, updated_at = ? WHERE id = 1",
+                Timestamp.from(Instant.now()));
+    }
+
+    private PostResponse createPost() {
+        String title = "Conditional " + UUID.randomUUID();
+        return blogPostService.createPost(CreatePostRequest.builder()
+                .title(title)
+                .content("<p>" + title + "</p>")
+                .categoryName("Conditional")
+                .tags(List.of("conditional"))
+                .published(true)
+                .build());
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.blog.controller;
+
+import com.example.blog.dto.ImageType;
+import com.example.blog.service.StorageService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LocalImageFileControllerTests {
+
+    private static final Path ROOT = Path.of(System.getProperty("java.io.tmpdir"), "blog-files-" + UUID.randomUUID());
+
+    @DynamicPropertySource
+    static void localStorage(DynamicPropertyRegistry registry) {
+        registry.add("app.storage.backend", () -> "local");
+        registry.add("app.storage.local.root-dir", ROOT::toString);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StorageService storageService;
+
+    @Test
+    void servesWholeFilesAndByteRanges() throws Exception {
+        String url = storageService.upload(file("0123456789"), ImageType.CONTENT).getUrl();
+
+        String etag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/png"))
+                .andExpect(header().string("X-Content-Type-Options", "nosniff"))
+                .andExpect(header().string("Content-Security-Policy", "sandbox"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_DISPOSITION))
+                .andExpect(content().bytes(png("0123456789")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // the body follows the 8-byte PNG signature
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=10-13"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-13/18"))
+                .andExpect(content().string("2345"));
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void signedUrlsAreVerified() throws Exception {
+        String key = storageService.upload(file("signed content"), ImageType.COVER).getKey();
+        String signed = storageService.presignGetUrl(key, Duration.ofMinutes(1));
+
+        mockMvc.perform(get(signed))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(png("signed content")));
+
+        mockMvc.perform(get(signed + "x"))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/api/images/files/" + key + "-missing.png"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void filesThatAreNotRasterImagesAreServedAsAttachments() throws Exception {
+        // e.g. a file stored before uploads were sniffed
+        Path html = ROOT.resolve("blog_post_images/legacy/page.html");
+        Files.createDirectories(html.getParent());
+        Files.writeString(html, "<script>alert(1)</script>");
+
+        mockMvc.perform(get("/api/images/files/blog_post_images/legacy/page.html"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/octet-stream"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"page.html\""))
+                .andExpect(header().string("X-Content-Type-Options", "nosniff"))
+                .andExpect(header().string("Content-Security-Policy", "sandbox"));
+    }
+
+    private static MockMultipartFile file(String content) {
+        return new MockMultipartFile("file", "picture.png", "image/png", png(content));
+    }
+
+    private static byte[] png(String content) {
+        byte[] signature = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A};
+        byte[] body = content.getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = Arrays.copyOf(signature, signature.length + body.length);
+        System.arraycopy(body, 0, bytes, signature.length, body.length);
+        return bytes;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.blog.security;
+
+import com.example.blog.dto.LoginRequest;
+import com.example.blog.dto.RegisterRequest;
+import com.example.blog.service.AuthService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Token revocation in the default configuration, where the filter loads the account per request
+ * ({@code jwt.stateless-principal=false}).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class JwtAuthenticationFilterTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void tokensIssuedBeforeLogoutAllAreRejected() throws Exception {
+        String username = "revoked-" + UUID.randomUUID().toString().substring(0, 8);
+        String token = register(username);
+
+        mockMvc.perform(get("/api/auth/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.user.username").value(username));
+
+        mockMvc.perform(post("/api/auth/logout-all").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/auth/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+
+        LoginRequest login = new LoginRequest();
+        login.setUsernameOrEmail(username);
+        login.setPassword("secret-password");
+        String fresh = authService.login(login).getAccessToken();
+
+        mockMvc.perform(get("/api/auth/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + fresh))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void accountsLoadedWhileRevocationCommitsAreNotKeptCached() {
+        String username = "racing-" + UUID.randomUUID().toString().substring(0, 8);
+        register(username);
+        int before = tokenVersion(username);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            authService.revokeTokens(username);
+            // a concurrent request loads (and caches) the account as last committed
+            assertThat(CompletableFuture.supplyAsync(() -> tokenVersion(username)).join()).isEqualTo(before);
+        });
+
+        assertThat(tokenVersion(username)).isEqualTo(before + 1);
+    }
+
+    private String register(String username) {
+        RegisterRequest register = new RegisterRequest();
+        register.setUsername(username);
+        register.setEmail(username + "@example.com");
+        register.setPassword("secret-password");
+        return authService.register(register).getAccessToken();
+    }
+
+    private int tokenVersion(String username) {
+        return ((VersionedUser) userDetailsService.loadUserByUsername(username)).getTokenVersion();
+    }
+}
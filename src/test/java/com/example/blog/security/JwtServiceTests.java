@@ -0,0 +1,48 @@
+package com.example.blog.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTests {
+
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", "test-secret-key-for-jwt-at-least-32-characters");
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "claimsCacheMaximumSize", 100L);
+        jwtService.init();
+    }
+
+    @Test
+    void verifiedClaimsAreReusedForTheSameToken() {
+        String token = jwtService.generateToken("admin", "ADMIN", 0);
+
+        Claims first = jwtService.extractAllClaims(token);
+        Claims second = jwtService.extractAllClaims(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.get("role", String.class)).isEqualTo("ADMIN");
+        assertThat(jwtService.isTokenValid(first, "admin")).isTrue();
+        assertThat(jwtService.isTokenValid(first, "someone-else")).isFalse();
+    }
+
+    @Test
+    void tamperedAndExpiredTokensAreRejected() {
+        String token = jwtService.generateToken("admin", "ADMIN", 0);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        assertThatThrownBy(() -> jwtService.extractAllClaims(tampered)).isInstanceOf(JwtException.class);
+
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", -1_000L);
+        String expired = jwtService.generateToken("admin", "ADMIN", 0);
+        assertThatThrownBy(() -> jwtService.extractAllClaims(expired)).isInstanceOf(JwtException.class);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.blog.security;
+
+import com.example.blog.repository.UserRepository;
+import com.example.blog.repository.UserTokenVersionView;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenVersionRegistryTests {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final TokenVersionRegistry registry = new TokenVersionRegistry(userRepository, true);
+
+    @Test
+    void onlyTheCurrentVersionOfAnEnabledUserIsAccepted() {
+        when(userRepository.findEnabledTokenVersions()).thenReturn(List.of(version("admin", 2)));
+        registry.refresh();
+
+        assertThat(registry.isCurrent("admin", 2)).isTrue();
+        assertThat(registry.isCurrent("admin", 1)).isFalse();
+        assertThat(registry.isCurrent("unknown", 0)).isFalse();
+
+        registry.update("admin", 3);
+        assertThat(registry.isCurrent("admin", 2)).isFalse();
+        assertThat(registry.isCurrent("admin", 3)).isTrue();
+
+        // Disabled or deleted users drop out on the next refresh
+        when(userRepository.findEnabledTokenVersions()).thenReturn(List.of());
+        registry.refresh();
+        assertThat(registry.isCurrent("admin", 3)).isFalse();
+    }
+
+    private static UserTokenVersionView version(String username, int tokenVersion) {
+        return new UserTokenVersionView() {
+            @Override
+            public String getUsername() {
+                return username;
+            }
+
+            @Override
+            public Integer getTokenVersion() {
+                return tokenVersion;
+            }
+        };
+    }
+}
@@ -0,0 +1,410 @@
+package com.example.blog.service;
+
+import com.example.blog.dto.CategoryResponse;
+import com.example.blog.dto.CreatePostRequest;
+import com.example.blog.dto.CursorPageResponse;
+import com.example.blog.dto.PostCursor;
+import com.example.blog.dto.PostResponse;
+import com.example.blog.dto.PostSummaryResponse;
+import com.example.blog.dto.SuggestionResponse;
+import com.example.blog.dto.TagResponse;
+import com.example.blog.dto.UpdatePostRequest;
+import com.example.blog.exception.ResourceNotFoundException;
+import com.example.blog.repository.BlogPostRepository;
+import com.example.blog.repository.CategoryRepository;
+import com.example.blog.repository.TagRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Guards the listing/aggregate paths of {@link BlogPostService} against N+1 regressions
+ * by counting the JDBC statements Hibernate prepares for each call.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BlogPostServiceQueryCountTests {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private BlogPostService blogPostService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private BlogPostRepository blogPostRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private FeedCountCache feedCountCache;
+
+    @Autowired
+    private PublishedFeedCache publishedFeedCache;
+
+    @Autowired
+    private PostRenderCache postRenderCache;
+
+    @Autowired
+    private PostSuggestionIndex postSuggestionIndex;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        blogPostRepository.deleteAll();
+        categoryRepository.deleteAll();
+        tagRepository.deleteAll();
+        // deleteAll() bypasses the service and publishes no PostChangedEvent, so reset the read caches by hand
+        feedCountCache.invalidateAll();
+        publishedFeedCache.invalidateAll();
+        postRenderCache.invalidateAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getAllCategoriesUsesConstantNumberOfStatements() {
+        for (int i = 0; i < 2; i++) {
+            createPost("Category " + i, List.of(), true, false);
+        }
+        long fewCategories = countStatements(() -> blogPostService.getAllCategories());
+
+        for (int i = 2; i < 12; i++) {
+            createPost("Category " + i, List.of(), true, false);
+        }
+        long manyCategories = countStatements(() -> blogPostService.getAllCategories());
+
+        assertThat(fewCategories).isEqualTo(1);
+        assertThat(manyCategories).isEqualTo(fewCategories);
+    }
+
+    @Test
+    void getAllCategoriesCountsOnlyPublishedNonArchivedPosts() {
+        createPost("Counting", List.of(), true, false);
+        createPost("Counting", List.of(), false, false);
+        createPost("Counting", List.of(), true, true);
+
+        List<CategoryResponse> categories = blogPostService.getAllCategories();
+
+        assertThat(categories).singleElement()
+                .satisfies(c -> assertThat(c.getPostCount()).isEqualTo(1));
+    }
+
+    @Test
+    void getAllTagsUsesConstantNumberOfStatements() {
+        for (int i = 0; i < 2; i++) {
+            createPost(null, List.of("tag-" + i), true, false);
+        }
+        long fewTags = countStatements(() -> blogPostService.getAllTags());
+
+        for (int i = 2; i < 12; i++) {
+            createPost(null, List.of("tag-" + i), true, false);
+        }
+        long manyTags = countStatements(() -> blogPostService.getAllTags());
+        long manyTagsViaTagService = countStatements(() -> tagService.findAllWithPublishedPosts());
+
+        assertThat(fewTags).isEqualTo(1);
+        assertThat(manyTags).isEqualTo(fewTags);
+        assertThat(manyTagsViaTagService).isEqualTo(fewTags);
+    }
+
+    @Test
+    void getAllTagsCountsOnlyPublishedNonArchivedPosts() {
+        createPost(null, List.of("counting"), true, false);
+        createPost(null, List.of("counting"), false, false);
+        createPost(null, List.of("counting", "unused"), false, true);
+
+        List<TagResponse> tags = blogPostService.getAllTags();
+
+        assertThat(tags).extracting(TagResponse::getName, TagResponse::getPostCount)
+                .containsExactly(tuple("counting", 1), tuple("unused", 0));
+        assertThat(tagService.findAllWithPublishedPosts())
+                .extracting(TagResponse::getName)
+                .containsExactly("counting");
+    }
+
+    @Test
+    void listingPagesUseBoundedNumberOfStatements() {
+        for (int i = 0; i < 30; i++) {
+            createPost("Category " + (i % 5), List.of("tag-" + (i % 7), "shared"), true, false);
+        }
+
+        long smallPage = countStatements(() -> blogPostService.findAllPublished(PageRequest.of(0, 5)));
+        long largePage = countStatements(() -> blogPostService.findAllPublished(PageRequest.of(0, 25)));
+        long byTag = countStatements(() -> blogPostService.findByTag("shared", PageRequest.of(0, 25)));
+        long byTagAgain = countStatements(() -> blogPostService.findByTag("shared", PageRequest.of(1, 5)));
+        long byCategory = countStatements(() -> blogPostService.findByCategory("category-1", PageRequest.of(0, 2)));
+        long byCategoryAgain = countStatements(() -> blogPostService.findByCategory("category-1", PageRequest.of(1, 2)));
+        long recent = countStatements(() -> blogPostService.findRecentlyUpdated(20));
+
+        // first read of a feed: page query + COUNT + one batched tag query;
+        // later reads of the same feed take the total from FeedCountCache
+        assertThat(smallPage).isEqualTo(3);
+        assertThat(largePage).isEqualTo(2);
+        assertThat(byTag).isEqualTo(3);
+        assertThat(byTagAgain).isEqualTo(2);
+        assertThat(byCategory).isEqualTo(3);
+        assertThat(byCategoryAgain).isEqualTo(2);
+        assertThat(recent).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void listingTotalsAreCountedOnceThenKeptUpToDate() {
+        PostResponse first = null;
+        for (int i = 0; i < 4; i++) {
+            PostResponse created = createPost("Totals", List.of("totals"), true, false);
+            first = first == null ? created : first;
+        }
+
+        long firstRead = countStatements(() -> blogPostService.findByTag("totals", PageRequest.of(0, 2)));
+        long secondRead = countStatements(() -> blogPostService.findByTag("totals", PageRequest.of(0, 2)));
+
+        // page query + COUNT + tag query, then the total comes from the cache
+        assertThat(firstRead).isEqualTo(3);
+        assertThat(secondRead).isEqualTo(2);
+
+        createPost("Totals", List.of("totals"), true, false);
+        blogPostService.archivePost(first.getId());
+        blogPostService.updatePost(first.getId(), UpdatePostRequest.builder().tags(List.of("elsewhere")).build());
+
+        long afterChanges = countStatements(() -> assertThat(
+                blogPostService.findByTag("totals", PageRequest.of(0, 2)).getTotalElements()).isEqualTo(4));
+        assertThat(afterChanges).isEqualTo(2);
+        assertThat(blogPostService.findByCategory("totals", PageRequest.of(0, 2)).getTotalElements()).isEqualTo(5);
+    }
+
+    @Test
+    void listingPagesCarryTagsAndCategory() {
+        createPost("Mapped", List.of("alpha", "beta"), true, false);
+
+        Page<PostSummaryResponse> page = blogPostService.findByTag("alpha", PageRequest.of(0, 10));
+
+        assertThat(page.getTotalElements()).isEqualTo(1);
+        assertThat(page.getContent()).singleElement().satisfies(summary -> {
+            assertThat(summary.getCategoryName()).isEqualTo("Mapped");
+            assertThat(summary.getTags()).containsExactly("alpha", "beta");
+            assertThat(summary.getExcerpt()).isNotBlank();
+        });
+    }
+
+    @Test
+    void postDetailIsServedFromCacheUntilPostChanges() {
+        PostResponse created = createPost("Cached", List.of("cached"), true, false);
+
+        long firstRead = countStatements(() -> blogPostService.findBySlug(created.getSlug()));
+        long secondRead = countStatements(() -> blogPostService.findBySlug(created.getSlug()));
+        long byId = countStatements(() -> blogPostService.findById(created.getId()));
+        long byIdAgain = countStatements(() -> blogPostService.findById(created.getId()));
+
+        assertThat(firstRead).isEqualTo(1);
+        assertThat(secondRead).isZero();
+        assertThat(byId).isEqualTo(1);
+        assertThat(byIdAgain).isZero();
+
+        blogPostService.updatePost(created.getId(), UpdatePostRequest.builder().title("Cached and updated").build());
+
+        assertThat(blogPostService.findBySlug(created.getSlug()).getTitle()).isEqualTo("Cached and updated");
+        assertThat(blogPostService.findById(created.getId()).getTitle()).isEqualTo("Cached and updated");
+    }
+
+    @Test
+    void publishedFeedSnapshotIsRebuiltPeriodically() {
+        PostResponse created = createPost("Snapshot", List.of("snapshot"), true, false);
+        PageRequest firstPage = PageRequest.of(0, 10);
+        assertThat(publishedFeedCache.get(firstPage).getContent())
+                .extracting(PostSummaryResponse::getTitle).containsExactly(created.getTitle());
+
+        // a change that raises no PostChangedEvent on this instance
+        jdbcTemplate.update("UPDATE posts SET title = ? WHERE id = ?", "Edited elsewhere", created.getId());
+        assertThat(publishedFeedCache.get(firstPage).getContent())
+                .extracting(PostSummaryResponse::getTitle).containsExactly(created.getTitle());
+
+        publishedFeedCache.refresh();
+
+        assertThat(publishedFeedCache.get(firstPage).getContent())
+                .extracting(PostSummaryResponse::getTitle).containsExactly("Edited elsewhere");
+    }
+
+    @Test
+    void renderedPostsAreCheckedAgainstThePostOnlyWhenTheRevisionMoves() {
+        PostResponse created = createPost("Rendered", List.of("rendered"), true, false);
+        postRenderCache.get(created.getSlug());
+        postRenderCache.get(created.getSlug());
+
+        // the test profile re-reads the shared revision row on every call (prod: once per interval)
+        long hit = countStatements(() -> assertThat(postRenderCache.get(created.getSlug())).isPresent());
+        assertThat(statistics.getQueries()).isEmpty();
+        long firstMiss = countStatements(() -> assertThatThrownBy(() -> postRenderCache.get("no-such-post"))
+                .isInstanceOf(ResourceNotFoundException.class));
+        long secondMiss = countStatements(() -> assertThatThrownBy(() -> postRenderCache.get("no-such-post"))
+                .isInstanceOf(ResourceNotFoundException.class));
+        assertThat(statistics.getQueries()).isEmpty();
+
+        createPost("Rendered", List.of(), false, false);
+        long afterChange = countStatements(() -> assertThat(postRenderCache.get(created.getSlug())).isPresent());
+        long afterCheck = countStatements(() -> assertThat(postRenderCache.get(created.getSlug())).isPresent());
+
+        assertThat(hit).isEqualTo(1);
+        assertThat(firstMiss).isEqualTo(2);
+        assertThat(secondMiss).isEqualTo(1);
+        // the revision moved: one row check, then the entry is served again without one
+        assertThat(afterChange).isEqualTo(2);
+        assertThat(afterCheck).isEqualTo(1);
+    }
+
+    @Test
+    void cursorPagesWalkTheFeedWithoutCountQueries() {
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            expected.add(0, createPost("Keyset", List.of("keyset"), true, false).getId());
+        }
+        createPost("Keyset", List.of("keyset"), false, false);
+
+        List<Long> seen = new ArrayList<>();
+        PostCursor cursor = PostCursor.FIRST;
+        List<CursorPageResponse<PostSummaryResponse>> pages = new ArrayList<>();
+        while (cursor != null) {
+            PostCursor position = cursor;
+            long statements = countStatements(() -> pages.add(blogPostService.findByTag("keyset", position, 3)));
+            CursorPageResponse<PostSummaryResponse> page = pages.get(pages.size() - 1);
+
+            // page query + one batched tag query, no COUNT
+            assertThat(statements).isLessThanOrEqualTo(2);
+            page.getContent().forEach(summary -> seen.add(summary.getId()));
+            cursor = page.isHasNext() ? PostCursor.decode(page.getNextCursor()) : null;
+        }
+
+        assertThat(pages).hasSize(3);
+        assertThat(seen).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void suggestionsAreServedWithoutStatements() {
+        PostResponse created = createPost("Suggestible", List.of("suggestible-tag"), true, false);
+        createPost("Suggestible", List.of(), false, false);
+
+        long statements = countStatements(() -> blogPostService.suggest("sugg", 10));
+
+        assertThat(statements).isZero();
+        assertThat(blogPostService.suggest("sugg", 10))
+                .extracting(SuggestionResponse::getType, SuggestionResponse::getSlug)
+                .containsExactlyInAnyOrder(
+                        tuple(SuggestionResponse.Type.CATEGORY, "suggestible"),
+                        tuple(SuggestionResponse.Type.TAG, "suggestible-tag"));
+        assertThat(blogPostService.suggest(created.getTitle(), 10))
+                .extracting(SuggestionResponse::getSlug)
+                .containsExactly(created.getSlug());
+    }
+
+    @Test
+    void suggestedTagsAndCategoriesFollowPostChangesWithoutAggregating() {
+        PostResponse first = createPost("Followed", List.of("followed-tag"), true, false);
+        PostResponse second = createPost("Followed", List.of("followed-tag"), true, false);
+
+        statistics.clear();
+        blogPostService.archivePost(first.getId());
+        assertThat(statistics.getQueries()).noneMatch(query -> query.contains("GROUP BY"));
+        assertThat(blogPostService.suggest("followed", 10))
+                .extracting(SuggestionResponse::getType, SuggestionResponse::getSlug)
+                .contains(tuple(SuggestionResponse.Type.TAG, "followed-tag"), tuple(SuggestionResponse.Type.CATEGORY, "followed"));
+
+        blogPostService.archivePost(second.getId());
+        assertThat(blogPostService.suggest("followed", 10))
+                .extracting(SuggestionResponse::getType).doesNotContain(SuggestionResponse.Type.TAG, SuggestionResponse.Type.CATEGORY);
+
+        blogPostService.unarchivePost(first.getId());
+        assertThat(blogPostService.suggest("followed", 10))
+                .extracting(SuggestionResponse::getType, SuggestionResponse::getSlug)
+                .contains(tuple(SuggestionResponse.Type.TAG, "followed-tag"), tuple(SuggestionResponse.Type.CATEGORY, "followed"));
+    }
+
+    @Test
+    void suggestionResyncPicksUpChangesMadeElsewhere() {
+        PostResponse created = createPost("Resynced", List.of("resynced-tag"), true, false);
+
+        // changes that raise no PostChangedEvent on this instance
+        jdbcTemplate.update("UPDATE posts SET title = ? WHERE id = ?", "Renamed elsewhere", created.getId());
+        jdbcTemplate.update("DELETE FROM post_tags WHERE post_id = ?", created.getId());
+        postSuggestionIndex.resync();
+
+        assertThat(blogPostService.suggest("renamed elsewhere", 10))
+                .extracting(SuggestionResponse::getSlug).containsExactly(created.getSlug());
+        assertThat(blogPostService.suggest(created.getTitle(), 10)).isEmpty();
+        assertThat(blogPostService.suggest("resynced", 10))
+                .extracting(SuggestionResponse::getType).doesNotContain(SuggestionResponse.Type.TAG);
+    }
+
+    @Test
+    void creatingAPostWithManyNewTagsUsesBatchedInserts() {
+        createPost("Batched", List.of("warm-up"), false, false);
+
+        long threeTags = countStatements(() -> createPost(null, newTags(3), false, false));
+        long thirtyTags = countStatements(() -> createPost(null, newTags(30), false, false));
+
+        // one tag lookup, batched tag and post_tags inserts; at most one more sequence call
+        // when the 30 ids cross an allocation block
+        assertThat(thirtyTags).isLessThanOrEqualTo(threeTags + 1);
+        assertThat(thirtyTags).isLessThan(15);
+        assertThat(tagRepository.count()).isEqualTo(34);
+    }
+
+    private static List<String> newTags(int count) {
+        int n = SEQUENCE.incrementAndGet();
+        List<String> tags = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tags.add("batch-" + n + "-" + i);
+        }
+        return tags;
+    }
+
+    private PostResponse createPost(String categoryName, List<String> tags, boolean published, boolean archived) {
+        int n = SEQUENCE.incrementAndGet();
+        return blogPostService.createPost(CreatePostRequest.builder()
+                .title("Query count post " + n)
+                .content("<p>Body of query count post " + n + "</p>")
+                .categoryName(categoryName)
+                .tags(tags)
+                .published(published)
+                .archived(archived)
+                .build());
+    }
+
+    private long countStatements(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
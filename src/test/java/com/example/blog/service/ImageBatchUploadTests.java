@@ -0,0 +1,115 @@
+package com.example.blog.service;
+
+import com.example.blog.dto.BatchUploadItemResponse;
+import com.example.blog.dto.BatchUploadResponse;
+import com.example.blog.dto.ImageType;
+import com.example.blog.dto.UploadResult;
+import com.example.blog.entity.Image;
+import com.example.blog.exception.StorageException;
+import com.example.blog.repository.ImageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = "app.images.batch.parallelism=2")
+@ActiveProfiles("test")
+class ImageBatchUploadTests {
+
+    @MockitoBean
+    private StorageService storageService;
+
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        imageRepository.deleteAll();
+        CyclicBarrier firstTwo = new CyclicBarrier(2);
+        given(storageService.upload(any(), any())).willAnswer(invocation -> {
+            MultipartFile file = invocation.getArgument(0);
+            int call = calls.incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                if (call <= 2) {
+                    // only completes if two uploads run at the same time
+                    firstTwo.await(5, TimeUnit.SECONDS);
+                }
+                if (file.getOriginalFilename().startsWith("broken")) {
+                    throw new StorageException("provider rejected " + file.getOriginalFilename());
+                }
+                String key = "/images/" + file.getOriginalFilename();
+                return UploadResult.builder().key(key).fileId(key).url("https://ik.test" + key).build();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+    }
+
+    @Test
+    void uploadsInParallelAndReportsEveryFile() throws Exception {
+        Image known = new Image();
+        known.setKey("/images/known.png");
+        known.setUrl("https://ik.test/images/known.png");
+        known.setContentHash(ContentHashes.sha256(file("known.png", "already stored")));
+        imageRepository.save(known);
+
+        BatchUploadResponse response = imageService.uploadBatch(List.of(
+                file("a.png", "first"),
+                file("b.png", "second"),
+                file("a-again.png", "first"),
+                file("known-again.png", "already stored"),
+                file("broken.png", "third"),
+                file("empty.png", "")
+        ), ImageType.CONTENT);
+
+        assertThat(response.getResults())
+                .extracting(BatchUploadItemResponse::getIndex, BatchUploadItemResponse::getOriginalName,
+                        BatchUploadItemResponse::getStatus)
+                .containsExactly(
+                        tuple(0, "a.png", BatchUploadItemResponse.Status.CREATED),
+                        tuple(1, "b.png", BatchUploadItemResponse.Status.CREATED),
+                        tuple(2, "a-again.png", BatchUploadItemResponse.Status.CREATED),
+                        tuple(3, "known-again.png", BatchUploadItemResponse.Status.EXISTING),
+                        tuple(4, "broken.png", BatchUploadItemResponse.Status.FAILED),
+                        tuple(5, "empty.png", BatchUploadItemResponse.Status.FAILED));
+        assertThat(response.getSucceeded()).isEqualTo(4);
+        assertThat(response.getFailed()).isEqualTo(2);
+        assertThat(response.getResults().get(2).getImage().getId())
+                .isEqualTo(response.getResults().get(0).getImage().getId());
+        assertThat(response.getResults().get(4).getError()).contains("provider rejected broken.png");
+
+        // a.png, b.png and broken.png: duplicates and known content are not uploaded again
+        verify(storageService, times(3)).upload(any(), any());
+        assertThat(maxInFlight.get()).isEqualTo(2);
+        assertThat(imageRepository.count()).isEqualTo(3);
+    }
+
+    private static MockMultipartFile file(String name, String content) {
+        return new MockMultipartFile("files", name, "image/png", content.getBytes(StandardCharsets.UTF_8));
+    }
+}
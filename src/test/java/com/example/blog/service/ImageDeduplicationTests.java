@@ -0,0 +1,169 @@
+package com.example.blog.service;
+
+import com.example.blog.dto.BatchUploadItemResponse;
+import com.example.blog.dto.BatchUploadResponse;
+import com.example.blog.dto.ImageResponse;
+import com.example.blog.dto.ImageType;
+import com.example.blog.dto.UploadResult;
+import com.example.blog.entity.Image;
+import com.example.blog.repository.ImageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Re-uploading identical bytes returns the existing image without another storage upload.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ImageDeduplicationTests {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @MockitoBean
+    private StorageService storageService;
+
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private ImageUploadPipeline imageUploadPipeline;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        imageRepository.deleteAll();
+        given(storageService.upload(any(), any())).willAnswer(invocation -> {
+            int n = SEQUENCE.incrementAndGet();
+            return UploadResult.builder().key("/images/" + n + ".png").fileId("file-" + n).url("https://ik.test/" + n + ".png").build();
+        });
+    }
+
+    @Test
+    void identicalContentIsUploadedOnce() {
+        ImageResponse first = imageService.upload(file("cover.png", "the same cover"), ImageType.COVER);
+        ImageResponse again = imageService.upload(file("cover-copy.png", "the same cover"), ImageType.COVER);
+        ImageResponse other = imageService.upload(file("cover.png", "a different cover"), ImageType.COVER);
+
+        assertThat(again.getId()).isEqualTo(first.getId());
+        assertThat(again.getUrl()).isEqualTo(first.getUrl());
+        assertThat(other.getId()).isNotEqualTo(first.getId());
+        verify(storageService, times(2)).upload(any(), any());
+        assertThat(imageRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void asyncUploadOfKnownContentReturnsTheExistingImage() {
+        ImageResponse stored = imageService.upload(file("inline.png", "inline image"), ImageType.CONTENT);
+
+        ImageResponse job = imageService.submitUpload(file("inline.png", "inline image"), ImageType.CONTENT);
+
+        assertThat(job.getId()).isEqualTo(stored.getId());
+        assertThat(job.getStatus()).isEqualTo("READY");
+        verify(storageService, times(1)).upload(any(), any());
+    }
+
+    @Test
+    void pendingUploadsAreNotReusedBySynchronousUploads() throws IOException {
+        Image pending = pendingImage("in flight", Instant.now());
+
+        ImageResponse uploaded = imageService.upload(file("in-flight.png", "in flight"), ImageType.CONTENT);
+        BatchUploadResponse batch = imageService.uploadBatch(
+                List.of(file("in-flight.png", "in flight")), ImageType.CONTENT);
+
+        assertThat(uploaded.getId()).isNotEqualTo(pending.getId());
+        assertThat(uploaded.getStatus()).isEqualTo("READY");
+        assertThat(uploaded.getUrl()).isNotNull();
+        BatchUploadItemResponse item = batch.getResults().get(0);
+        assertThat(item.getStatus()).isEqualTo(BatchUploadItemResponse.Status.CREATED);
+        assertThat(item.getImage().getStatus()).isEqualTo("READY");
+        // the in-flight job still owns the hash
+        assertThat(imageRepository.findById(pending.getId()).orElseThrow().getContentHash()).isNotNull();
+    }
+
+    @Test
+    void staleUploadsAreFailedAndReleaseTheirHash() throws Exception {
+        Image stale = pendingImage("abandoned", Instant.now().minus(Duration.ofHours(1)));
+        Image fresh = pendingImage("still running", Instant.now());
+
+        imageUploadPipeline.failStalePendingUploads();
+
+        Image failed = imageRepository.findById(stale.getId()).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(Image.Status.FAILED);
+        assertThat(failed.getContentHash()).isNull();
+        assertThat(failed.getFailureReason()).isNotBlank();
+        assertThat(imageRepository.findById(fresh.getId()).orElseThrow().getStatus()).isEqualTo(Image.Status.PENDING);
+
+        ImageResponse retry = imageService.submitUpload(file("abandoned.png", "abandoned"), ImageType.CONTENT);
+        assertThat(retry.getId()).isNotEqualTo(stale.getId());
+        assertThat(awaitJob(retry.getId()).getStatus()).isEqualTo("READY");
+    }
+
+    @Test
+    void asyncRetryOfAStaleUploadStartsANewJob() throws Exception {
+        Image stale = pendingImage("orphaned", Instant.now().minus(Duration.ofHours(1)));
+
+        ImageResponse retry = imageService.submitUpload(file("orphaned.png", "orphaned"), ImageType.CONTENT);
+
+        assertThat(retry.getId()).isNotEqualTo(stale.getId());
+        assertThat(imageRepository.findById(stale.getId()).orElseThrow().getStatus()).isEqualTo(Image.Status.FAILED);
+        assertThat(awaitJob(retry.getId()).getStatus()).isEqualTo("READY");
+    }
+
+    /**
+     * Waits for an async job to leave PENDING, so it cannot reach the storage mock of a later test.
+     */
+    private ImageResponse awaitJob(Long id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        ImageResponse job = imageService.getById(id);
+        while ("PENDING".equals(job.getStatus()) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            job = imageService.getById(id);
+        }
+        return job;
+    }
+
+    /**
+     * A PENDING row as left behind by an async job, created at {@code uploadedAt}.
+     */
+    private Image pendingImage(String content, Instant uploadedAt) throws IOException {
+        Image image = new Image();
+        image.setOriginalName("pending.png");
+        image.setContentType("image/png");
+        image.setSize((long) content.length());
+        image.setContentHash(ContentHashes.sha256(file("pending.png", content)));
+        image.setStatus(Image.Status.PENDING);
+        Image saved = imageRepository.save(image);
+        jdbcTemplate.update("UPDATE images SET uploaded_at = ? WHERE id = ?", Timestamp.from(uploadedAt), saved.getId());
+        return saved;
+    }
+
+    private static MockMultipartFile file(String name, String content) {
+        return new MockMultipartFile("file", name, "image/png", content.getBytes(StandardCharsets.UTF_8));
+    }
+}
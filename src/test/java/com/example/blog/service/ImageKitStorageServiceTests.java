@@ -0,0 +1,230 @@
+package com.example.blog.service;
+
+import com.example.blog.dto.ImageType;
+import com.example.blog.dto.UploadResult;
+import com.example.blog.exception.StorageException;
+import com.sun.net.httpserver.HttpServer;
+import io.imagekit.sdk.ImageKit;
+import io.imagekit.sdk.config.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Verifies that uploads stream to ImageKit instead of materialising the file (and its base64 copy) on the heap.
+ */
+class ImageKitStorageServiceTests {
+
+    private static final long FILE_SIZE = 16L * 1024 * 1024;
+
+    private HttpServer server;
+    private final AtomicLong receivedBytes = new AtomicLong();
+    private final AtomicReference<String> authorization = new AtomicReference<>();
+    private final AtomicReference<String> bodyHead = new AtomicReference<>();
+    private volatile int responseStatus = 200;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v1/files/upload", exchange -> {
+            authorization.set(exchange.getRequestHeaders().getFirst("Authorization"));
+            byte[] buffer = new byte[64 * 1024];
+            ByteArrayOutputStream head = new ByteArrayOutputStream();
+            try (InputStream in = exchange.getRequestBody()) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    if (head.size() < 2048) {
+                        head.write(buffer, 0, Math.min(read, 2048 - head.size()));
+                    }
+                    receivedBytes.addAndGet(read);
+                }
+            }
+            bodyHead.set(head.toString(StandardCharsets.ISO_8859_1));
+            byte[] body = (responseStatus == 200
+                    ? "{\"fileId\":\"file-1\",\"filePath\":\"/blog_post_images/a.png\",\"url\":\"https://ik.test/a.png\"}"
+                    : "{\"message\":\"bad\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(responseStatus, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void uploadStreamsFileWithBoundedHeapAllocation() {
+        ImageKitStorageService storageService = storageService();
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        // warm up class loading and connection setup so the measurement reflects the copy loop
+        storageService.upload(new GeneratedFile(1024), ImageType.CONTENT);
+        receivedBytes.set(0);
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        UploadResult result = storageService.upload(new GeneratedFile(FILE_SIZE), ImageType.CONTENT);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertThat(result.getFileId()).isEqualTo("file-1");
+        assertThat(result.getKey()).isEqualTo("/blog_post_images/a.png");
+        assertThat(receivedBytes.get()).isGreaterThan(FILE_SIZE);
+        assertThat(authorization.get()).startsWith("Basic ");
+        // a byte[] + base64 copy would cost ~2.3x the file size; streaming stays at a few buffers
+        assertThat(allocated).isLessThan(2L * 1024 * 1024);
+    }
+
+    @Test
+    void uploadFailureSurfacesAsStorageException() {
+        responseStatus = 400;
+
+        assertThatThrownBy(() -> storageService().upload(new GeneratedFile(1024), ImageType.COVER))
+                .isInstanceOf(StorageException.class)
+                .hasMessageContaining("HTTP 400");
+    }
+
+    @Test
+    void clientFileNameAndContentTypeCannotInjectPartHeaders() {
+        storageService().upload(new GeneratedFile(16, "x.png\"\r\nX-Injected: 1", "image/png\r\nX-Injected: 2"), ImageType.CONTENT);
+
+        assertThat(bodyHead.get())
+                .doesNotContain("X-Injected")
+                .containsPattern("filename=\"[0-9a-f-]{36}\"\r\n")
+                .contains("Content-Type: application/octet-stream\r\n");
+    }
+
+    @Test
+    void plainExtensionsAndImageTypesAreKept() {
+        storageService().upload(new GeneratedFile(16, "photo.JPEG", "image/jpeg; name=photo"), ImageType.CONTENT);
+
+        assertThat(bodyHead.get())
+                .containsPattern("filename=\"[0-9a-f-]{36}\\.JPEG\"\r\n")
+                .contains("Content-Type: image/jpeg\r\n");
+        assertThat(ImageKitStorageService.extension("archive.tar.gz")).isEqualTo(".gz");
+        assertThat(ImageKitStorageService.extension("no-extension")).isEmpty();
+        assertThat(ImageKitStorageService.extension("x.averyverylongext")).isEmpty();
+        assertThat(ImageKitStorageService.partContentType("text/html")).isEqualTo("application/octet-stream");
+        assertThat(ImageKitStorageService.partContentType("image/*")).isEqualTo("application/octet-stream");
+        assertThat(ImageKitStorageService.partContentType(null)).isEqualTo("application/octet-stream");
+    }
+
+    private ImageKitStorageService storageService() {
+        // a mock, not ImageKit.getInstance(): that singleton is configured by the Spring contexts of other tests
+        ImageKit imageKit = mock(ImageKit.class);
+        given(imageKit.getConfig()).willReturn(new Configuration("test-public-key", "test-private-key", "https://ik.test"));
+        String uploadUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/api/v1/files/upload";
+        return new ImageKitStorageService(imageKit, uploadUrl, 2, Duration.ofSeconds(5));
+    }
+
+    /**
+     * A multipart part whose content is generated on the fly; {@link #getBytes()} fails so any
+     * code path that buffers the whole file is caught.
+     */
+    private static final class GeneratedFile implements MultipartFile {
+
+        private final long size;
+        private final String originalFilename;
+        private final String contentType;
+
+        private GeneratedFile(long size) {
+            this(size, "generated.png", "image/png");
+        }
+
+        private GeneratedFile(long size, String originalFilename, String contentType) {
+            this.size = size;
+            this.originalFilename = originalFilename;
+            this.contentType = contentType;
+        }
+
+        @Override
+        public String getName() {
+            return "file";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return originalFilename;
+        }
+
+        @Override
+        public String getContentType() {
+            return contentType;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        @Override
+        public long getSize() {
+            return size;
+        }
+
+        @Override
+        public byte[] getBytes() {
+            throw new AssertionError("upload must not buffer the whole file");
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new InputStream() {
+                private long remaining = size;
+
+                @Override
+                public int read() {
+                    if (remaining <= 0) {
+                        return -1;
+                    }
+                    remaining--;
+                    return (int) (remaining & 0x7f);
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    if (remaining <= 0) {
+                        return -1;
+                    }
+                    int n = (int) Math.min(len, remaining);
+                    for (int i = 0; i < n; i++) {
+                        b[off + i] = (byte) i;
+                    }
+                    remaining -= n;
+                    return n;
+                }
+            };
+        }
+
+        @Override
+        public void transferTo(File dest) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void transferTo(Path dest) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
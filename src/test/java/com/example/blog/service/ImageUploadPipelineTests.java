@@ -0,0 +1,124 @@
+package com.example.blog.service;
+
+import com.example.blog.dto.ImageResponse;
+import com.example.blog.dto.ImageType;
+import com.example.blog.dto.UploadResult;
+import com.example.blog.exception.StorageException;
+import com.example.blog.exception.UploadQueueFullException;
+import com.example.blog.repository.ImageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+/**
+ * Async uploads return PENDING without waiting on the storage provider, then settle to READY or FAILED.
+ */
+@SpringBootTest(properties = {
+        "app.images.async.workers=1",
+        "app.images.async.queue-capacity=1"
+})
+@ActiveProfiles("test")
+class ImageUploadPipelineTests {
+
+    @MockitoBean
+    private StorageService storageService;
+
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @BeforeEach
+    void setUp() {
+        imageRepository.deleteAll();
+    }
+
+    @Test
+    void uploadIsAcceptedBeforeStorageRespondsAndCompletesLater() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        given(storageService.upload(any(), any())).willAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return UploadResult.builder().key("/blog_post_images/a.png").fileId("file-1").url("https://ik.test/a.png").build();
+        });
+
+        long started = System.nanoTime();
+        ImageResponse accepted = imageService.submitUpload(file("a.png"), ImageType.CONTENT);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+        assertThat(accepted.getStatus()).isEqualTo("PENDING");
+        assertThat(accepted.getUrl()).isNull();
+        assertThat(elapsed).isLessThan(Duration.ofSeconds(5));
+
+        release.countDown();
+        ImageResponse done = awaitJob(accepted.getId(), job -> !"PENDING".equals(job.getStatus()));
+
+        assertThat(done.getStatus()).isEqualTo("READY");
+        assertThat(done.getUrl()).isEqualTo("https://ik.test/a.png");
+        assertThat(done.getKey()).isEqualTo("/blog_post_images/a.png");
+    }
+
+    @Test
+    void failedUploadIsReportedOnTheJob() throws Exception {
+        given(storageService.upload(any(), any())).willThrow(new StorageException("provider down"));
+
+        ImageResponse accepted = imageService.submitUpload(file("b.png"), ImageType.COVER);
+        ImageResponse done = awaitJob(accepted.getId(), job -> !"PENDING".equals(job.getStatus()));
+
+        assertThat(done.getStatus()).isEqualTo("FAILED");
+        assertThat(done.getFailureReason()).contains("provider down");
+    }
+
+    @Test
+    void fullSpoolRefusesNewUploads() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(storageService.upload(any(), any())).willAnswer(invocation -> {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return UploadResult.builder().key("k").fileId("f").url("u").build();
+        });
+
+        try {
+            // one upload in flight on the single worker, one waiting in the queue
+            imageService.submitUpload(file("c.png"), ImageType.CONTENT);
+            assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+            imageService.submitUpload(file("d.png"), ImageType.CONTENT);
+
+            assertThatThrownBy(() -> imageService.submitUpload(file("e.png"), ImageType.CONTENT))
+                    .isInstanceOf(UploadQueueFullException.class);
+            assertThat(imageRepository.count()).isEqualTo(2);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private ImageResponse awaitJob(Long id, Predicate<ImageResponse> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        ImageResponse job = imageService.getById(id);
+        while (!condition.test(job) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            job = imageService.getById(id);
+        }
+        return job;
+    }
+
+    private static MockMultipartFile file(String name) {
+        return new MockMultipartFile("file", name, "image/png", ("content of " + name).getBytes(StandardCharsets.UTF_8));
+    }
+}
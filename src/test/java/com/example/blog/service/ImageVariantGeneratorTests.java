@@ -0,0 +1,106 @@
+package com.example.blog.service;
+
+import com.example.blog.dto.ImageType;
+import com.example.blog.dto.UploadResult;
+import com.example.blog.entity.ImageVariant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ImageVariantGeneratorTests {
+
+    private final List<UploadedVariant> uploaded = new ArrayList<>();
+    private StorageService storageService;
+    private ImageVariantGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        storageService = mock(StorageService.class);
+        given(storageService.upload(any(), any())).willAnswer(invocation -> {
+            MultipartFile file = invocation.getArgument(0);
+            uploaded.add(new UploadedVariant(file.getOriginalFilename(), file.getContentType(), file.getBytes()));
+            String key = "/variants/" + file.getOriginalFilename();
+            return UploadResult.builder().key(key).fileId(key).url("https://ik.test" + key).build();
+        });
+        generator = new ImageVariantGenerator(storageService, 1, 1, 50_000_000);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        generator.shutdown();
+    }
+
+    @Test
+    void largeOpaqueImageGetsAllVariantsAsJpeg() throws Exception {
+        List<ImageVariant> variants = generator.createVariants(image("cover.png", 2000, 1000, false), ImageType.COVER);
+
+        assertThat(variants)
+                .extracting(ImageVariant::getSize, ImageVariant::getWidth, ImageVariant::getHeight)
+                .containsExactly(
+                        tuple(ImageVariant.Size.THUMBNAIL, 320, 160),
+                        tuple(ImageVariant.Size.CARD, 768, 384),
+                        tuple(ImageVariant.Size.FULL, 1600, 800));
+        assertThat(variants).allSatisfy(v -> assertThat(v.getUrl()).startsWith("https://ik.test/variants/cover-"));
+        assertThat(uploaded).extracting(UploadedVariant::contentType).containsOnly("image/jpeg");
+        for (UploadedVariant variant : uploaded) {
+            BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(variant.bytes()));
+            assertThat(decoded).isNotNull();
+        }
+        // the card is a fraction of the original's decoded size
+        assertThat(variants.get(1).getBytes()).isLessThan(2000L * 1000 * 3 / 20);
+    }
+
+    @Test
+    void onlyVariantsSmallerThanTheOriginalAreProducedAndAlphaIsKept() throws Exception {
+        List<ImageVariant> variants = generator.createVariants(image("logo.png", 500, 250, true), ImageType.CONTENT);
+
+        assertThat(variants).extracting(ImageVariant::getSize).containsExactly(ImageVariant.Size.THUMBNAIL);
+        assertThat(uploaded).singleElement().satisfies(v -> {
+            assertThat(v.name()).isEqualTo("logo-thumbnail.png");
+            assertThat(v.contentType()).isEqualTo("image/png");
+        });
+    }
+
+    @Test
+    void undecodableFilesGetNoVariants() {
+        MockMultipartFile svg = new MockMultipartFile("file", "icon.svg", "image/svg+xml", "<svg/>".getBytes());
+
+        assertThat(generator.createVariants(svg, ImageType.CONTENT)).isEmpty();
+        verify(storageService, never()).upload(any(), any());
+    }
+
+    private static MockMultipartFile image(String name, int width, int height, boolean alpha) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.ORANGE);
+        g.fillRect(0, 0, width / 2, height);
+        g.setColor(Color.BLUE);
+        g.fillOval(width / 2, 0, width / 2, height);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return new MockMultipartFile("file", name, "image/png", out.toByteArray());
+    }
+
+    private record UploadedVariant(String name, String contentType, byte[] bytes) {
+    }
+}
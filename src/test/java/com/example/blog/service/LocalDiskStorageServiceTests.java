@@ -0,0 +1,123 @@
+package com.example.blog.service;
+
+import com.example.blog.dto.ImageType;
+import com.example.blog.dto.UploadResult;
+import com.example.blog.exception.InvalidFileException;
+import com.example.blog.exception.StorageException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalDiskStorageServiceTests {
+
+    @TempDir
+    Path root;
+
+    private LocalDiskStorageService storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new LocalDiskStorageService(root, "/api/images/files", "test-signing-secret", true);
+    }
+
+    @Test
+    void uploadsAreStoredUnderTheirContentHash() throws Exception {
+        UploadResult first = storage.upload(file("cover.PNG", "same bytes"), ImageType.COVER);
+        UploadResult second = storage.upload(file("other.png", "same bytes"), ImageType.COVER);
+        UploadResult different = storage.upload(file("cover.png", "other bytes"), ImageType.COVER);
+
+        assertThat(first.getKey()).matches("blogs_cover_images/[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}\\.png");
+        assertThat(first.getKey()).contains(first.getFileId());
+        assertThat(second.getKey()).isEqualTo(first.getKey());
+        assertThat(different.getKey()).isNotEqualTo(first.getKey());
+        assertThat(first.getUrl()).isEqualTo("/api/images/files/" + first.getKey());
+        assertThat(Files.readAllBytes(storage.resolve(first.getKey()))).isEqualTo(png("same bytes"));
+        assertThat(storage.exists(first.getKey())).isTrue();
+        try (var leftovers = Files.list(root.resolve(".tmp"))) {
+            assertThat(leftovers).isEmpty();
+        }
+
+        storage.delete(first.getKey(), first.getFileId());
+        assertThat(storage.exists(first.getKey())).isFalse();
+    }
+
+    @Test
+    void keyExtensionComesFromTheSniffedContent() {
+        byte[] jpeg = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0, 0x10, 'J', 'F', 'I', 'F', 0, 1};
+
+        UploadResult result = storage.upload(new MockMultipartFile("file", "photo.html", "text/html", jpeg), ImageType.CONTENT);
+
+        assertThat(result.getKey()).endsWith(".jpg");
+    }
+
+    @Test
+    void nonRasterContentIsRejected() throws Exception {
+        byte[] html = "<html><script>alert(1)</script></html>".getBytes(StandardCharsets.UTF_8);
+        byte[] svg = "<svg xmlns=\"http://www.w3.org/2000/svg\" onload=\"alert(1)\"/>".getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> storage.upload(new MockMultipartFile("file", "x.png", "image/png", html), ImageType.CONTENT))
+                .isInstanceOf(InvalidFileException.class);
+        assertThatThrownBy(() -> storage.upload(new MockMultipartFile("file", "x.svg", "image/svg+xml", svg), ImageType.CONTENT))
+                .isInstanceOf(InvalidFileException.class);
+        try (var leftovers = Files.list(root.resolve(".tmp"))) {
+            assertThat(leftovers).isEmpty();
+        }
+    }
+
+    @Test
+    void directUploadsAreNotSupported() {
+        assertThatThrownBy(() -> storage.presignPutUrl("a.png", "image/png", Duration.ofMinutes(1)))
+                .isInstanceOf(StorageException.class);
+    }
+
+    @Test
+    void presignedUrlsAreSignedAndExpire() {
+        String key = storage.upload(file("a.png", "signed"), ImageType.CONTENT).getKey();
+
+        String url = storage.presignGetUrl(key, Duration.ofMinutes(5));
+        long expires = Long.parseLong(url.replaceAll(".*expires=(\\d+).*", "$1"));
+        String signature = url.replaceAll(".*signature=", "");
+
+        assertThat(storage.isSignatureValid(key, expires, signature)).isTrue();
+        assertThat(storage.isSignatureValid(key, expires + 1, signature)).isFalse();
+        assertThat(storage.isSignatureValid(key + "x", expires, signature)).isFalse();
+
+        String expired = storage.presignGetUrl(key, Duration.ofSeconds(-10));
+        assertThat(storage.isSignatureValid(key,
+                Long.parseLong(expired.replaceAll(".*expires=(\\d+).*", "$1")),
+                expired.replaceAll(".*signature=", ""))).isFalse();
+    }
+
+    @Test
+    void keysCannotEscapeTheStorageRoot() {
+        assertThatThrownBy(() -> storage.resolve("../outside.png")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> storage.resolve(".tmp/upload.part")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(storage.upload(file("../../evil.png/..", "x"), ImageType.CONTENT).getKey())
+                .doesNotContain("..");
+    }
+
+    private static MockMultipartFile file(String name, String content) {
+        return new MockMultipartFile("file", name, "image/png", png(content));
+    }
+
+    /**
+     * A PNG signature followed by the given text, enough for the upload's format sniffing.
+     */
+    private static byte[] png(String content) {
+        byte[] signature = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A};
+        byte[] body = content.getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = Arrays.copyOf(signature, signature.length + body.length);
+        System.arraycopy(body, 0, bytes, signature.length, body.length);
+        return bytes;
+    }
+}
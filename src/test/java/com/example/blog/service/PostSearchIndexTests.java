@@ -0,0 +1,127 @@
+package com.example.blog.service;
+
+import com.example.blog.dto.PostSummaryResponse;
+import com.example.blog.entity.BlogPost;
+import com.example.blog.entity.Tag;
+import com.example.blog.repository.BlogPostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class PostSearchIndexTests {
+
+    private static final Instant INDEXED_AT = Instant.parse("2024-06-01T00:00:00Z");
+
+    private BlogPostRepository blogPostRepository;
+    private PostSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        blogPostRepository = mock(BlogPostRepository.class);
+        index = new PostSearchIndex(blogPostRepository, SearchMode.INDEX);
+        index.rebuild(List.of(
+                post(1L, "Getting started with Spring Boot", "<p>Spring makes Java services easy.</p>", true, "java"),
+                post(2L, "Tuning PostgreSQL", "<p>Indexes and <b>vacuum</b> for Postgres.</p>", true, "databases"),
+                post(3L, "Spring Data JPA projections", "<p>Projections avoid loading Postgres TEXT columns.</p>", true, "java", "databases"),
+                post(4L, "Draft about Spring", "<p>Not published yet.</p>", false, "java")
+        ));
+    }
+
+    @Test
+    void ranksTitleMatchesAboveContentMatches() {
+        Page<PostSummaryResponse> result = index.search("postgres", PageRequest.of(0, 10));
+
+        assertThat(result.getContent()).extracting(PostSummaryResponse::getId).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void requiresEveryTermAndMatchesLastTermAsPrefix() {
+        Page<PostSummaryResponse> result = index.search("spring proj", PageRequest.of(0, 10));
+
+        assertThat(result.getContent()).extracting(PostSummaryResponse::getId).containsExactly(3L);
+    }
+
+    @Test
+    void skipsUnpublishedPostsAndPaginates() {
+        Page<PostSummaryResponse> firstPage = index.search("spring", PageRequest.of(0, 1));
+        Page<PostSummaryResponse> secondPage = index.search("spring", PageRequest.of(1, 1));
+
+        assertThat(firstPage.getTotalElements()).isEqualTo(2);
+        assertThat(firstPage.getContent()).hasSize(1);
+        assertThat(secondPage.getContent()).hasSize(1);
+        assertThat(List.of(firstPage.getContent().get(0).getId(), secondPage.getContent().get(0).getId()))
+                .containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    void reflectsIncrementalUpdatesAndRemovals() {
+        index.upsert(post(2L, "Tuning MySQL", "<p>Buffer pools.</p>", true, "databases"));
+        index.remove(1L);
+
+        assertThat(index.search("postgresql", PageRequest.of(0, 10)).getContent()).isEmpty();
+        assertThat(index.search("mysql", PageRequest.of(0, 10)).getContent())
+                .extracting(PostSummaryResponse::getId).containsExactly(2L);
+        assertThat(index.search("getting", PageRequest.of(0, 10)).getContent()).isEmpty();
+    }
+
+    @Test
+    void resyncReindexesPostsChangedSinceTheNewestIndexedUpdate() {
+        BlogPost changedElsewhere = post(2L, "Tuning MySQL", "<p>Buffer pools.</p>", true, "databases");
+        changedElsewhere.setUpdatedAt(INDEXED_AT.plusSeconds(30));
+        given(blogPostRepository.findWithCategoryAndTagsUpdatedAfter(INDEXED_AT.minus(Duration.ofMinutes(1))))
+                .willReturn(List.of(changedElsewhere));
+
+        index.resync();
+
+        assertThat(index.search("postgresql", PageRequest.of(0, 10)).getContent()).isEmpty();
+        assertThat(index.search("mysql", PageRequest.of(0, 10)).getContent())
+                .extracting(PostSummaryResponse::getId).containsExactly(2L);
+    }
+
+    @Test
+    void fullRebuildDropsPostsDeletedElsewhere() {
+        given(blogPostRepository.findAllWithCategoryAndTags()).willReturn(List.of(
+                post(2L, "Tuning PostgreSQL", "<p>Indexes and <b>vacuum</b> for Postgres.</p>", true, "databases")));
+
+        index.rebuildFromDatabase();
+
+        assertThat(index.search("getting", PageRequest.of(0, 10)).getContent()).isEmpty();
+        assertThat(index.search("postgresql", PageRequest.of(0, 10)).getContent())
+                .extracting(PostSummaryResponse::getId).containsExactly(2L);
+    }
+
+    @Test
+    void matchesTagNames() {
+        Page<PostSummaryResponse> result = index.search("databases", PageRequest.of(0, 10));
+
+        assertThat(result.getContent()).extracting(PostSummaryResponse::getId).containsExactlyInAnyOrder(2L, 3L);
+    }
+
+    private static BlogPost post(Long id, String title, String content, boolean published, String... tagNames) {
+        Set<Tag> tags = new HashSet<>();
+        for (String name : tagNames) {
+            tags.add(Tag.builder().id((long) name.hashCode()).name(name).slug(name).build());
+        }
+        return BlogPost.builder()
+                .id(id)
+                .title(title)
+                .content(content)
+                .excerpt(null)
+                .published(published)
+                .tags(tags)
+                .createdAt(Instant.parse("2024-01-01T00:00:00Z").plusSeconds(id))
+                .updatedAt(INDEXED_AT)
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.blog.service;
+
+import com.example.blog.dto.CategoryResponse;
+import com.example.blog.dto.SuggestionResponse;
+import com.example.blog.dto.TagResponse;
+import com.example.blog.repository.BlogPostRepository;
+import com.example.blog.repository.CategoryRepository;
+import com.example.blog.repository.TagRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class PostSuggestionIndexTests {
+
+    private final BlogPostRepository blogPostRepository = mock(BlogPostRepository.class);
+    private final TagRepository tagRepository = mock(TagRepository.class);
+    private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+    private final PostSuggestionIndex index = new PostSuggestionIndex(blogPostRepository, tagRepository, categoryRepository);
+
+    @Test
+    void heaviestMatchesWinEvenWhenTheySortAfterManyLighterOnes() {
+        List<TagResponse> tags = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            tags.add(new TagResponse((long) i, String.format("spring-%03d", i), String.format("spring-%03d", i), 1));
+        }
+        tags.add(new TagResponse(1000L, "spring-zz-popular", "spring-zz-popular", 40));
+        given(blogPostRepository.findPublishedSummaries(any(Pageable.class))).willReturn(new SliceImpl<>(List.of()));
+        given(tagRepository.findAllWithPublishedPostCounts()).willReturn(tags);
+        given(categoryRepository.findAllWithPublishedPostCounts()).willReturn(List.of(
+                new CategoryResponse(1L, "Spring zzz", "spring-zzz", null, 25)));
+        index.buildOnStartup();
+
+        List<SuggestionResponse> suggestions = index.suggest("spr", 3);
+
+        assertThat(suggestions).extracting(SuggestionResponse::getSlug)
+                .containsExactly("spring-zz-popular", "spring-zzz", "spring-000");
+    }
+}